@@ -0,0 +1,135 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.events.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import systems.reformcloud.events.Event;
+import systems.reformcloud.events.annotations.Subscribe;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways a listener method can get called: a direct call as baseline, {@link Method#invoke(Object, Object...)},
+ * a {@link MethodHandle} adapted to the invoker signature, the invoker generated by {@link EventInvokers} and the
+ * invoker of the {@link ListenerDispatcher} generated at compile time by the {@code SubscribeProcessor}.
+ * The listener hands every event to a blackhole, so no call can be removed as dead code.
+ * <p>
+ * Build with {@code mvn -P benchmark package} and run with
+ * {@code java -cp target/reformcloud-systems-1.0-SNAPSHOT.jar org.openjdk.jmh.Main EventInvokerBenchmark}.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EventInvokerBenchmark {
+
+    private final Event event = new BenchmarkEvent();
+
+    private BenchmarkListener listener;
+
+    private Method method;
+
+    private MethodHandle methodHandle;
+
+    private EventInvoker invoker;
+
+    private EventInvoker dispatcherInvoker;
+
+    @Setup
+    public void setup(@NotNull Blackhole blackhole) throws ReflectiveOperationException {
+        this.listener = new BenchmarkListener(blackhole);
+        this.method = BenchmarkListener.class.getMethod("handle", BenchmarkEvent.class);
+        this.methodHandle = MethodHandles.lookup()
+                .unreflect(this.method)
+                .asType(MethodType.methodType(void.class, Object.class, Event.class));
+        this.invoker = EventInvokers.getInvoker(this.method);
+        // loads the generated dispatcher directly, so the benchmark fails instead of measuring the scanned invoker
+        ListenerDispatcher dispatcher = (ListenerDispatcher) Class.forName(BenchmarkListener.class.getName() + ListenerDispatcher.SUFFIX)
+                .getDeclaredConstructor()
+                .newInstance();
+        this.dispatcherInvoker = dispatcher.getSubscriptions()[0].getInvoker();
+    }
+
+    @Benchmark
+    public void directCall() {
+        this.listener.handle((BenchmarkEvent) this.event);
+    }
+
+    @Benchmark
+    public void methodInvoke() throws ReflectiveOperationException {
+        this.method.invoke(this.listener, this.event);
+    }
+
+    @Benchmark
+    public void methodHandle() throws Throwable {
+        this.methodHandle.invokeExact((Object) this.listener, this.event);
+    }
+
+    @Benchmark
+    public void generatedInvoker() throws Throwable {
+        this.invoker.invoke(this.listener, this.event);
+    }
+
+    @Benchmark
+    public void generatedDispatcher() throws Throwable {
+        this.dispatcherInvoker.invoke(this.listener, this.event);
+    }
+
+    public static class BenchmarkEvent extends Event {
+    }
+
+    public static class BenchmarkListener {
+
+        public BenchmarkListener(@NotNull Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        private final Blackhole blackhole;
+
+        @Subscribe
+        public void handle(@NotNull BenchmarkEvent event) {
+            this.blackhole.consume(event);
+        }
+    }
+}
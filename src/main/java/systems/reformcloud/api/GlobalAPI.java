@@ -27,8 +27,11 @@ import com.google.common.base.Preconditions;
 import org.jetbrains.annotations.NotNull;
 import systems.reformcloud.commands.CommandMap;
 import systems.reformcloud.database.DatabaseDriver;
+import systems.reformcloud.database.async.AsyncDatabaseDriver;
 import systems.reformcloud.events.EventManager;
+import systems.reformcloud.events.async.OrderedEventExecutor;
 import systems.reformcloud.handler.ReformCloudSystemsBotHandler;
+import systems.reformcloud.scheduler.DelayedJobScheduler;
 
 /**
  * The global api which holds the only existing instance of the {@link ReformCloudSystemsBotHandler}
@@ -63,6 +66,14 @@ public final class GlobalAPI {
         return GlobalAPI.parent.getEventManager();
     }
 
+    /**
+     * @return The executor which runs the asynchronous event listeners
+     */
+    @NotNull
+    public static OrderedEventExecutor getEventExecutor() {
+        return GlobalAPI.parent.getEventExecutor();
+    }
+
     /**
      * @return The currently running command map
      */
@@ -78,4 +89,20 @@ public final class GlobalAPI {
     public static DatabaseDriver getDatabaseDriver() {
         return GlobalAPI.parent.getDatabaseDriver();
     }
+
+    /**
+     * @return The asynchronous view of the database driver which is currently active
+     */
+    @NotNull
+    public static AsyncDatabaseDriver getAsyncDatabaseDriver() {
+        return GlobalAPI.parent.getAsyncDatabaseDriver();
+    }
+
+    /**
+     * @return The scheduler which runs the persisted delayed jobs
+     */
+    @NotNull
+    public static DelayedJobScheduler getDelayedJobScheduler() {
+        return GlobalAPI.parent.getDelayedJobScheduler();
+    }
 }
@@ -75,6 +75,28 @@ public final class ConfigUtil {
             properties.setProperty("discord-auto-mute-first", "5");
             properties.setProperty("discord-auto-mute-second", "10");
             properties.setProperty("discord-auto-ban", "15");
+            properties.setProperty("discord-reconcile-all-members", "false");
+
+            properties.setProperty("database-driver", "h2");
+            properties.setProperty("database-message-store", "database");
+            properties.setProperty("database-log-segment-size", "16777216");
+            properties.setProperty("database-memory-latency", "0");
+            properties.setProperty("delayed-job-threads", "2");
+            properties.setProperty("event-async-threads", "2");
+            properties.setProperty("event-async-queue-size", "1000");
+            properties.setProperty("event-async-overflow-policy", "block");
+            properties.setProperty("database-pool-size", "10");
+            properties.setProperty("database-pool-idle-timeout", "300000");
+            properties.setProperty("database-pool-acquire-timeout", "10000");
+            properties.setProperty("database-statement-cache-size", "64");
+            properties.setProperty("database-async-threads", "4");
+            properties.setProperty("database-async-queue-size", "1000");
+            properties.setProperty("database-async-timeout", "10000");
+
+            properties.setProperty("logger-write-queue-size", "10000");
+            properties.setProperty("logger-write-batch-size", "500");
+            properties.setProperty("logger-write-flush-interval", "1000");
+            properties.setProperty("logger-partitioned-tables", "false");
 
             properties.setProperty("docs-base-url", "https://docs.reformcloud.systems/");
             properties.setProperty("version-update-url", "https://internal.reformcloud.systems/version.properties");
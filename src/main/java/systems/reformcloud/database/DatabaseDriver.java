@@ -28,11 +28,15 @@ import org.jetbrains.annotations.Nullable;
 import systems.reformcloud.database.config.DatabaseConfig;
 import systems.reformcloud.database.object.DatabaseObject;
 import systems.reformcloud.database.object.DatabaseObjectToken;
+import systems.reformcloud.database.scan.ScanOptions;
+import systems.reformcloud.database.transaction.BufferedDatabaseTransaction;
+import systems.reformcloud.database.transaction.DatabaseTransaction;
+import systems.reformcloud.database.transaction.TransactionOperation;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
 
 /**
@@ -55,8 +59,9 @@ public interface DatabaseDriver {
      * Creates a new table in the database
      *
      * @param table The name of the new table in the database
+     * @return If the table exists after the call, {@code false} if it could not get created
      */
-    void createTable(@NotNull String table);
+    boolean createTable(@NotNull String table);
 
     /**
      * Deletes a table from the database
@@ -65,6 +70,12 @@ public interface DatabaseDriver {
      */
     void deleteTable(@NotNull String table);
 
+    /**
+     * @return The names of all existing tables in lower case
+     */
+    @NotNull
+    Collection<String> getTables();
+
     /**
      * Inserts a database object into the database
      *
@@ -79,6 +90,60 @@ public interface DatabaseDriver {
      */
     void update(@NotNull DatabaseObject object);
 
+    /**
+     * Inserts the object into the database or replaces the existing object with the same key
+     * in one atomic operation
+     *
+     * @param object The object which should get inserted or updated
+     */
+    void upsert(@NotNull DatabaseObject object);
+
+    /**
+     * Inserts or replaces all given objects in the database
+     *
+     * @param objects The objects which should get inserted or updated
+     * @return If all objects were written
+     * @see #upsert(DatabaseObject)
+     */
+    default boolean upsertAll(@NotNull Collection<? extends DatabaseObject> objects) {
+        return this.transaction(transaction -> objects.forEach(transaction::upsert));
+    }
+
+    /**
+     * Runs the unit of work and applies all writes it made to the transaction together. Nothing gets written
+     * if the unit of work throws an exception. Drivers which support it apply the writes in one atomic commit.
+     *
+     * @param unitOfWork The unit of work which makes the writes of the transaction
+     * @return If the writes of the transaction were committed
+     * @see #commit(List)
+     */
+    default boolean transaction(@NotNull Consumer<DatabaseTransaction> unitOfWork) {
+        BufferedDatabaseTransaction transaction = new BufferedDatabaseTransaction();
+        unitOfWork.accept(transaction);
+
+        if (!transaction.getOperations().isEmpty() && !this.commit(transaction.getOperations())) {
+            return false;
+        }
+
+        transaction.getCommitCallbacks().forEach(Runnable::run);
+        return true;
+    }
+
+    /**
+     * Applies the given writes of a transaction in order. The default implementation applies them
+     * one by one, without any atomicity.
+     *
+     * @param operations The writes which should get applied
+     * @return If all writes were applied
+     */
+    default boolean commit(@NotNull List<TransactionOperation> operations) {
+        for (TransactionOperation operation : operations) {
+            operation.applyTo(this);
+        }
+
+        return true;
+    }
+
     /**
      * Gets an object from the database
      *
@@ -102,6 +167,78 @@ public interface DatabaseDriver {
     @Nullable
     <T> T getOrDefault(@NotNull DatabaseObjectToken<T> databaseObjectToken, @Nullable T def);
 
+    /**
+     * Gets the raw values of multiple keys of a table in as few round trips as the driver allows
+     *
+     * @param table The table in which the objects are located
+     * @param keys  The keys of the objects which should get loaded
+     * @return The values of all keys which exist in the table by their key
+     */
+    @NotNull
+    Map<String, byte[]> getMany(@NotNull String table, @NotNull Collection<String> keys);
+
+    /**
+     * Gets multiple objects from the database, the tokens are grouped by their table to load them
+     * with {@link #getMany(String, Collection)}
+     *
+     * @param databaseObjectTokens The tokens to deserialize the objects from the database
+     * @param <T>                  The type of the objects which get deserialize from the database
+     * @return All objects which exist in the database by their key
+     */
+    @NotNull
+    default <T> Map<String, T> getMany(@NotNull Collection<? extends DatabaseObjectToken<T>> databaseObjectTokens) {
+        Map<String, List<DatabaseObjectToken<T>>> byTable = new HashMap<>();
+        for (DatabaseObjectToken<T> token : databaseObjectTokens) {
+            byTable.computeIfAbsent(token.getTable(), table -> new ArrayList<>()).add(token);
+        }
+
+        Map<String, T> out = new HashMap<>();
+        for (Map.Entry<String, List<DatabaseObjectToken<T>>> entry : byTable.entrySet()) {
+            Collection<String> keys = new ArrayList<>();
+            entry.getValue().forEach(token -> keys.add(token.getKey()));
+
+            Map<String, byte[]> values = this.getMany(entry.getKey(), keys);
+            for (DatabaseObjectToken<T> token : entry.getValue()) {
+                byte[] bytes = values.get(token.getKey());
+                T result = bytes == null ? null : token.decode(bytes);
+                if (result != null) {
+                    out.put(token.getKey(), result);
+                }
+            }
+        }
+
+        return out;
+    }
+
+    /**
+     * Inserts all objects whose key does not exist in their table yet, existing objects stay untouched
+     *
+     * @param objects The objects which should get inserted if they are missing
+     * @return The amount of objects which were inserted
+     */
+    default long insertMissing(@NotNull Collection<? extends DatabaseObject> objects) {
+        Map<String, List<DatabaseObject>> byTable = new HashMap<>();
+        for (DatabaseObject object : objects) {
+            byTable.computeIfAbsent(object.getTable(), table -> new ArrayList<>()).add(object);
+        }
+
+        long inserted = 0;
+        for (Map.Entry<String, List<DatabaseObject>> entry : byTable.entrySet()) {
+            Collection<String> keys = new ArrayList<>();
+            entry.getValue().forEach(object -> keys.add(object.getKey()));
+
+            Set<String> existing = new HashSet<>(this.getMany(entry.getKey(), keys).keySet());
+            for (DatabaseObject object : entry.getValue()) {
+                if (existing.add(object.getKey())) {
+                    this.insert(object);
+                    inserted++;
+                }
+            }
+        }
+
+        return inserted;
+    }
+
     /**
      * Gets all objects from a specific table in the database
      *
@@ -125,7 +262,25 @@ public interface DatabaseDriver {
      * @param handler Handles all objects which are read out of the database
      * @param <T>     The type of the object in the database after the map
      */
-    <T> void forEachInTable(@NotNull String table, @NotNull Function<byte[], T> mapper, @NotNull Consumer<T> handler);
+    default <T> void forEachInTable(@NotNull String table, @NotNull Function<byte[], T> mapper, @NotNull Consumer<T> handler) {
+        try (Stream<T> stream = this.scan(table, ScanOptions.all(), mapper)) {
+            stream.forEach(handler);
+        }
+    }
+
+    /**
+     * Creates a lazy stream of the values in a database table. The rows are loaded while the stream is consumed,
+     * in chunks of the fetch size of the options. The stream holds database resources until it is fully
+     * consumed or closed, so it should be used in a try-with-resources statement.
+     *
+     * @param table   The table in which the objects are located
+     * @param options The options which rows of the table should get read
+     * @param mapper  The mapper which creates the objects from the bytes of the database
+     * @param <T>     The type of the object in the database after the map
+     * @return A stream of all objects in the table which match the options, ordered by their key
+     */
+    @NotNull
+    <T> Stream<T> scan(@NotNull String table, @NotNull ScanOptions options, @NotNull Function<byte[], T> mapper);
 
     /**
      * Deletes an object from the database
@@ -149,9 +304,56 @@ public interface DatabaseDriver {
      *
      * @param table The table from which the keys should be in the stream
      * @return A stream which all key names of all database rows
+     * @see #keys(String, ScanOptions)
      */
     @NotNull
-    Stream<String> keys(@NotNull String table);
+    default Stream<String> keys(@NotNull String table) {
+        return this.keys(table, ScanOptions.all());
+    }
+
+    /**
+     * Creates a lazy stream of the key names in a database table. Only the keys are read from the database.
+     * The stream holds database resources until it is fully consumed or closed, so it should be used in a
+     * try-with-resources statement.
+     *
+     * @param table   The table from which the keys should be in the stream
+     * @param options The options which rows of the table should get read
+     * @return A stream of all key names in the table which match the options in ascending order
+     */
+    @NotNull
+    Stream<String> keys(@NotNull String table, @NotNull ScanOptions options);
+
+    /**
+     * Deletes all objects of the table which were created before the given time. The objects are deleted
+     * in chunks, so a single delete never holds the whole table.
+     *
+     * @param table        The table from which the objects should get deleted
+     * @param creationTime The creation time in milliseconds before which all objects get deleted
+     * @param chunkSize    The maximum amount of objects deleted at once
+     * @return The amount of deleted objects
+     * @see systems.reformcloud.database.object.TimedDatabaseObject
+     */
+    long deleteCreatedBefore(@NotNull String table, long creationTime, int chunkSize);
+
+    /**
+     * Sets the creation time of all objects of the table which were written without a creation time. The
+     * objects whose creation time cannot be read by the given reader are skipped.
+     *
+     * @param table              The table in which the creation times should get set
+     * @param creationTimeReader The reader of the creation time from the encoded object, returns {@code -1}
+     *                           if the creation time is unknown
+     * @param chunkSize          The maximum amount of objects updated at once
+     * @return The amount of updated objects
+     */
+    long updateMissingCreationTimes(@NotNull String table, @NotNull ToLongFunction<byte[]> creationTimeReader, int chunkSize);
+
+    /**
+     * @return Runtime statistics of the driver by their display name, for example about the connection pool
+     */
+    @NotNull
+    default Map<String, String> getStatistics() {
+        return Collections.emptyMap();
+    }
 
     /**
      * Closes the current connection to the database
@@ -0,0 +1,345 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.async;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import systems.reformcloud.database.DatabaseDriver;
+import systems.reformcloud.database.object.DatabaseObject;
+import systems.reformcloud.database.object.DatabaseObjectToken;
+import systems.reformcloud.database.scan.ScanOptions;
+import systems.reformcloud.database.scan.ScanPage;
+import systems.reformcloud.database.transaction.DatabaseTransaction;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An asynchronous facade of a {@link DatabaseDriver}. All operations are executed on a bounded pool of
+ * i/o threads, the calling thread never runs a database operation itself. If all threads are busy and the
+ * queue of the pool is full, or the driver is closed, the returned future completes exceptionally with a
+ * {@link RejectedExecutionException} instead of queueing an unbounded amount of work.
+ * <p>
+ * Tables are read page by page, every page is read by its own operation, so a scan of a big table does not
+ * hold an i/o thread or the memory for the whole table.
+ * <p>
+ * Every returned future completes exceptionally with a {@link TimeoutException} if the operation did
+ * not finish within the timeout. The timeout does not abort the database operation itself.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public class AsyncDatabaseDriver implements AutoCloseable {
+
+    public AsyncDatabaseDriver(@NotNull DatabaseDriver driver, int threads, int queueSize, long timeoutMillis) {
+        this(driver, createExecutor(threads, queueSize), timeoutMillis);
+    }
+
+    private AsyncDatabaseDriver(@NotNull DatabaseDriver driver, @NotNull ThreadPoolExecutor executor, long timeoutMillis) {
+        this(driver, executor, timeoutMillis, new LongAdder());
+    }
+
+    private AsyncDatabaseDriver(@NotNull DatabaseDriver driver, @NotNull ThreadPoolExecutor executor, long timeoutMillis,
+                                @NotNull LongAdder rejected) {
+        this.driver = driver;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+        this.rejected = rejected;
+    }
+
+    private final DatabaseDriver driver;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long timeoutMillis;
+
+    private final LongAdder rejected;
+
+    /**
+     * Creates a view of this driver which uses the same i/o threads but another timeout for the operations
+     *
+     * @param timeout  The timeout of the operations
+     * @param timeUnit The time unit of the timeout
+     * @return A driver which applies the given timeout to all operations
+     */
+    @NotNull
+    public AsyncDatabaseDriver withTimeout(long timeout, @NotNull TimeUnit timeUnit) {
+        return new AsyncDatabaseDriver(this.driver, this.executor, timeUnit.toMillis(timeout), this.rejected);
+    }
+
+    /**
+     * @see DatabaseDriver#createTable(String)
+     */
+    @NotNull
+    public CompletableFuture<Boolean> createTable(@NotNull String table) {
+        return this.supply(() -> this.driver.createTable(table));
+    }
+
+    /**
+     * @see DatabaseDriver#get(DatabaseObjectToken)
+     */
+    @NotNull
+    public <T> CompletableFuture<T> get(@NotNull DatabaseObjectToken<T> databaseObjectToken) {
+        return this.supply(() -> this.driver.get(databaseObjectToken));
+    }
+
+    /**
+     * @see DatabaseDriver#getOrDefault(DatabaseObjectToken, Object)
+     */
+    @NotNull
+    public <T> CompletableFuture<T> getOrDefault(@NotNull DatabaseObjectToken<T> databaseObjectToken, @Nullable T def) {
+        return this.supply(() -> this.driver.getOrDefault(databaseObjectToken, def));
+    }
+
+    /**
+     * @see DatabaseDriver#insert(DatabaseObject)
+     */
+    @NotNull
+    public CompletableFuture<Void> insert(@NotNull DatabaseObject object) {
+        return this.run(() -> this.driver.insert(object));
+    }
+
+    /**
+     * @see DatabaseDriver#update(DatabaseObject)
+     */
+    @NotNull
+    public CompletableFuture<Void> update(@NotNull DatabaseObject object) {
+        return this.run(() -> this.driver.update(object));
+    }
+
+    /**
+     * @see DatabaseDriver#upsert(DatabaseObject)
+     */
+    @NotNull
+    public CompletableFuture<Void> upsert(@NotNull DatabaseObject object) {
+        return this.run(() -> this.driver.upsert(object));
+    }
+
+    /**
+     * @see DatabaseDriver#deleteFromTable(String, String)
+     */
+    @NotNull
+    public CompletableFuture<Void> deleteFromTable(@NotNull String table, @NotNull String key) {
+        return this.run(() -> this.driver.deleteFromTable(table, key));
+    }
+
+    /**
+     * @see DatabaseDriver#deleteFromTable(DatabaseObject)
+     */
+    @NotNull
+    public CompletableFuture<Void> deleteFromTable(@NotNull DatabaseObject object) {
+        return this.run(() -> this.driver.deleteFromTable(object));
+    }
+
+    /**
+     * @see DatabaseDriver#transaction(Consumer)
+     */
+    @NotNull
+    public CompletableFuture<Boolean> transaction(@NotNull Consumer<DatabaseTransaction> unitOfWork) {
+        return this.supply(() -> this.driver.transaction(unitOfWork));
+    }
+
+    /**
+     * @see DatabaseDriver#getAll(String, Function)
+     */
+    @NotNull
+    public <T> CompletableFuture<Collection<T>> getAll(@NotNull String table, @NotNull Function<byte[], T> mapper) {
+        return this.supply(() -> this.driver.getAll(table, mapper));
+    }
+
+    /**
+     * Reads one page of the keys of a table, which contains at most as many keys as the fetch size of the options
+     *
+     * @param table   The table of which the keys should get read
+     * @param options The options of the scan or the next options of the previous page
+     * @return A future completed with the page of keys
+     * @see DatabaseDriver#keys(String, ScanOptions)
+     */
+    @NotNull
+    public CompletableFuture<ScanPage<String>> keys(@NotNull String table, @NotNull ScanOptions options) {
+        return this.supply(() -> {
+            List<String> keys = this.readKeys(table, options);
+            return new ScanPage<>(keys.subList(0, Math.min(keys.size(), pageSize(options))), nextPage(options, keys));
+        });
+    }
+
+    /**
+     * Reads one page of the rows of a table, which contains at most as many rows as the fetch size of the options.
+     * Rows which are deleted while the page is read are not contained in the page.
+     *
+     * @param table   The table of which the rows should get read
+     * @param options The options of the scan or the next options of the previous page
+     * @param mapper  The mapper which decodes the bytes of a row
+     * @param <T>     The type of the decoded rows
+     * @return A future completed with the page of decoded rows
+     * @see DatabaseDriver#scan(String, ScanOptions, Function)
+     */
+    @NotNull
+    public <T> CompletableFuture<ScanPage<T>> scan(@NotNull String table, @NotNull ScanOptions options, @NotNull Function<byte[], T> mapper) {
+        return this.supply(() -> {
+            List<String> keys = this.readKeys(table, options);
+            List<String> pageKeys = keys.subList(0, Math.min(keys.size(), pageSize(options)));
+            Map<String, byte[]> values = this.driver.getMany(table, pageKeys);
+
+            List<T> rows = new ArrayList<>(pageKeys.size());
+            for (String key : pageKeys) {
+                byte[] value = values.get(key);
+                if (value != null) {
+                    rows.add(mapper.apply(value));
+                }
+            }
+
+            return new ScanPage<>(rows, nextPage(options, keys));
+        });
+    }
+
+    /**
+     * Reads all rows of a table page by page and hands every page to the given consumer before the next page
+     * gets read. The consumer is called on an i/o thread and should not block.
+     *
+     * @param table    The table of which the rows should get read
+     * @param options  The options of the scan
+     * @param mapper   The mapper which decodes the bytes of a row
+     * @param consumer The consumer of the pages
+     * @param <T>      The type of the decoded rows
+     * @return A future completed with the amount of rows read when the consumer accepted the last page
+     */
+    @NotNull
+    public <T> CompletableFuture<Long> forEachPage(@NotNull String table, @NotNull ScanOptions options,
+                                                   @NotNull Function<byte[], T> mapper, @NotNull Consumer<List<T>> consumer) {
+        return this.forEachPage(table, options, mapper, consumer, 0);
+    }
+
+    @NotNull
+    private <T> CompletableFuture<Long> forEachPage(@NotNull String table, @NotNull ScanOptions options, @NotNull Function<byte[], T> mapper,
+                                                    @NotNull Consumer<List<T>> consumer, long read) {
+        return this.scan(table, options, mapper).thenCompose(page -> {
+            consumer.accept(page.getRows());
+            long total = read + page.getRows().size();
+            return page.getNext() == null
+                    ? CompletableFuture.completedFuture(total)
+                    : this.forEachPage(table, page.getNext(), mapper, consumer, total);
+        });
+    }
+
+    @NotNull
+    private List<String> readKeys(@NotNull String table, @NotNull ScanOptions options) {
+        // one more key than the page holds is read to find the start of the next page
+        try (Stream<String> keys = this.driver.keys(table, options.limit(pageSize(options) + 1L))) {
+            return keys.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @return The statistics of the i/o threads by their display name
+     */
+    @NotNull
+    public Map<String, String> getStatistics() {
+        Map<String, String> statistics = new LinkedHashMap<>();
+        statistics.put("io threads", Integer.toString(this.executor.getMaximumPoolSize()));
+        statistics.put("active operations", Integer.toString(this.executor.getActiveCount()));
+        statistics.put("queued operations", Integer.toString(this.executor.getQueue().size()));
+        statistics.put("completed operations", Long.toString(this.executor.getCompletedTaskCount()));
+        statistics.put("rejected operations", Long.toString(this.rejected.sum()));
+        statistics.put("timeout", this.timeoutMillis + "ms");
+        return statistics;
+    }
+
+    @NotNull
+    private CompletableFuture<Void> run(@NotNull Runnable runnable) {
+        return this.supply(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    @NotNull
+    private <T> CompletableFuture<T> supply(@NotNull Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, this.executor).orTimeout(this.timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException ex) {
+            this.rejected.increment();
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private static int pageSize(@NotNull ScanOptions options) {
+        return options.getLimit() < 0 ? options.getFetchSize() : (int) Math.min(options.getFetchSize(), options.getLimit());
+    }
+
+    @Nullable
+    private static ScanOptions nextPage(@NotNull ScanOptions options, @NotNull List<String> keys) {
+        int pageSize = pageSize(options);
+        if (keys.size() <= pageSize || options.getLimit() == pageSize) {
+            return null;
+        }
+
+        ScanOptions next = options.from(keys.get(pageSize));
+        return options.getLimit() < 0 ? next : next.limit(options.getLimit() - pageSize);
+    }
+
+    /**
+     * Stops accepting new operations and waits until the already submitted operations are done
+     */
+    @Override
+    public void close() {
+        this.executor.shutdown();
+
+        try {
+            if (!this.executor.awaitTermination(this.timeoutMillis, TimeUnit.MILLISECONDS)) {
+                this.executor.shutdownNow();
+            }
+        } catch (final InterruptedException ex) {
+            this.executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @NotNull
+    private static ThreadPoolExecutor createExecutor(int threads, int queueSize) {
+        AtomicInteger threadId = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                1,
+                TimeUnit.MINUTES,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "Database-IO-" + threadId.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.basic;
+
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.database.pool.PooledConnection;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * A cursor over the rows of a query which reads the rows while they are requested. The connection of the
+ * cursor is returned to the pool as soon as the last row was read or the cursor gets closed.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+final class H2Cursor<T> extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+
+    /**
+     * Executes the query of the statement lazily, so only the requested rows are loaded into memory
+     *
+     * @param connection The connection of the statement which is owned by the cursor from now on
+     * @param statement  The statement with the query which is owned by the cursor from now on
+     * @param reader     The reader of the rows
+     * @param <T>        The type of the objects read from the rows
+     * @return The cursor over the rows of the query
+     * @throws SQLException If the query could not get executed
+     */
+    @NotNull
+    static <T> H2Cursor<T> open(@NotNull PooledConnection connection, @NotNull PreparedStatement statement,
+                                @NotNull RowReader<T> reader) throws SQLException {
+        setLazyExecution(connection, true);
+        try {
+            return new H2Cursor<>(connection, statement, statement.executeQuery(), reader);
+        } catch (final SQLException ex) {
+            setLazyExecution(connection, false);
+            throw ex;
+        }
+    }
+
+    private H2Cursor(@NotNull PooledConnection connection, @NotNull PreparedStatement statement,
+                     @NotNull ResultSet resultSet, @NotNull RowReader<T> reader) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED);
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.reader = reader;
+    }
+
+    private final PooledConnection connection;
+
+    private final PreparedStatement statement;
+
+    private final ResultSet resultSet;
+
+    private final RowReader<T> reader;
+
+    private boolean closed;
+
+    @Override
+    public boolean tryAdvance(@NotNull Consumer<? super T> action) {
+        if (this.closed) {
+            return false;
+        }
+
+        try {
+            if (this.resultSet.next()) {
+                action.accept(this.reader.read(this.resultSet));
+                return true;
+            }
+        } catch (final SQLException ex) {
+            ex.printStackTrace();
+        }
+
+        this.close();
+        return false;
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        try {
+            this.resultSet.close();
+            this.statement.close();
+            setLazyExecution(this.connection, false);
+        } catch (final SQLException ex) {
+            ex.printStackTrace();
+        } finally {
+            this.connection.close();
+        }
+    }
+
+    private static void setLazyExecution(@NotNull PooledConnection connection, boolean lazy) throws SQLException {
+        try (Statement statement = connection.getConnection().createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + lazy);
+        }
+    }
+
+    /**
+     * Reads the current row of a result set
+     *
+     * @param <T> The type of the object which is read from a row
+     */
+    @FunctionalInterface
+    interface RowReader<T> {
+
+        T read(@NotNull ResultSet resultSet) throws SQLException;
+    }
+}
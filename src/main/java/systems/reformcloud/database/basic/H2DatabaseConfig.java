@@ -24,6 +24,7 @@
 package systems.reformcloud.database.basic;
 
 import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.config.ConfigUtil;
 import systems.reformcloud.database.config.DatabaseConfig;
 
 import java.io.File;
@@ -38,9 +39,41 @@ public class H2DatabaseConfig implements DatabaseConfig {
 
     private static final String FILE = System.getProperty("database.file.name", "h2/h2_db");
 
+    @NotNull
+    @Override
+    public String getDriverType() {
+        return ConfigUtil.parseProperties().getProperty("database-driver", "h2");
+    }
+
+    @NotNull
+    @Override
+    public String getDatabaseFile() {
+        return new File(FILE).getAbsolutePath();
+    }
+
     @Override
     public @NotNull
     String formatConnectionString() {
-        return "jdbc:h2:" + new File(FILE).getAbsolutePath();
+        return "jdbc:h2:" + this.getDatabaseFile();
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+        return Integer.parseInt(ConfigUtil.parseProperties().getProperty("database-pool-size", "10"));
+    }
+
+    @Override
+    public long getIdleTimeout() {
+        return Long.parseLong(ConfigUtil.parseProperties().getProperty("database-pool-idle-timeout", "300000"));
+    }
+
+    @Override
+    public long getAcquireTimeout() {
+        return Long.parseLong(ConfigUtil.parseProperties().getProperty("database-pool-acquire-timeout", "10000"));
+    }
+
+    @Override
+    public int getStatementCacheSize() {
+        return Integer.parseInt(ConfigUtil.parseProperties().getProperty("database-statement-cache-size", "64"));
     }
 }
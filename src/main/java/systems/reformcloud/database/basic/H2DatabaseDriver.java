@@ -27,19 +27,24 @@ import org.h2.Driver;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import systems.reformcloud.database.DatabaseDriver;
+import systems.reformcloud.database.codec.CodecRegistry;
 import systems.reformcloud.database.config.DatabaseConfig;
 import systems.reformcloud.database.object.DatabaseObject;
 import systems.reformcloud.database.object.DatabaseObjectToken;
+import systems.reformcloud.database.object.TimedDatabaseObject;
+import systems.reformcloud.database.pool.ConnectionPool;
+import systems.reformcloud.database.pool.PooledConnection;
+import systems.reformcloud.database.scan.ScanOptions;
+import systems.reformcloud.database.transaction.TransactionOperation;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.function.Consumer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A default implementation of a database driver
@@ -49,13 +54,40 @@ import java.util.stream.Stream;
  */
 public class H2DatabaseDriver implements DatabaseDriver {
 
-    private Connection connection;
+    static final String TABLE_LAYOUT = " (`key` VARCHAR(255) NOT NULL PRIMARY KEY, `value` LONGBLOB, creation_time BIGINT)";
+
+    private static final String KNOWN_TABLES_QUERY = "SELECT DISTINCT TABLE_NAME FROM INFORMATION_SCHEMA.INDEXES"
+            + " WHERE TABLE_SCHEMA = 'PUBLIC' AND COLUMN_NAME = 'CREATION_TIME' AND TABLE_NAME IN"
+            + " (SELECT TABLE_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = 'PUBLIC' AND PRIMARY_KEY = TRUE)";
+
+    private static final int MULTI_KEY_CHUNK_SIZE = 500;
+
+    private final Set<String> knownTables = ConcurrentHashMap.newKeySet();
+
+    private ConnectionPool connectionPool;
 
     @Override
     public boolean connect(@NotNull DatabaseConfig config) {
         try {
             Driver.load();
-            this.connection = DriverManager.getConnection(config.formatConnectionString());
+            this.connectionPool = new ConnectionPool(
+                    config.formatConnectionString(),
+                    config.getMaximumPoolSize(),
+                    config.getIdleTimeout(),
+                    config.getAcquireTimeout(),
+                    config.getStatementCacheSize()
+            );
+
+            try (PooledConnection connection = this.connectionPool.acquire()) {
+                try {
+                    H2TableMigration.migrateLegacyTables(connection.getConnection());
+                } catch (final SQLException ex) {
+                    System.err.println("Unable to migrate the database tables, continuing with the old table layout");
+                    ex.printStackTrace();
+                }
+
+                this.loadKnownTables(connection);
+            }
 
             return true;
         } catch (final SQLException ex) {
@@ -65,65 +97,236 @@ public class H2DatabaseDriver implements DatabaseDriver {
         return false;
     }
 
+    /**
+     * Loads all tables which are already in the current table layout, a table is in the current layout
+     * if its key is the primary key and its creation time column is indexed.
+     *
+     * @param connection The connection to read the tables with
+     */
+    private void loadKnownTables(@NotNull PooledConnection connection) {
+        try (Statement statement = connection.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery(KNOWN_TABLES_QUERY)) {
+            while (resultSet.next()) {
+                this.knownTables.add(resultSet.getString(1).toLowerCase(Locale.ROOT));
+            }
+        } catch (final SQLException ex) {
+            ex.printStackTrace();
+        }
+    }
+
     @Override
-    public void createTable(@NotNull String table) {
-        try (PreparedStatement statement = connection.prepareStatement("CREATE TABLE IF NOT EXISTS " + table
-                + " (`key` TEXT, `value` LONGBLOB)")) {
-            statement.executeUpdate();
+    public boolean createTable(@NotNull String table) {
+        String name = table.toLowerCase(Locale.ROOT);
+        if (this.knownTables.contains(name)) {
+            return true;
+        }
+
+        try (PooledConnection connection = this.connectionPool.acquire();
+             Statement statement = connection.getConnection().createStatement()) {
+            // a table left in the old layout by the connect migration gets migrated once its keys are unique
+            boolean migrated = H2TableMigration.migrateIfLegacy(connection.getConnection(), table.toUpperCase(Locale.ROOT));
+            connection.invalidateCachedStatements(table);
+
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + table + TABLE_LAYOUT);
+            statement.executeUpdate("ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS creation_time BIGINT");
+            statement.executeUpdate("CREATE INDEX IF NOT EXISTS " + table + "_creation_time ON " + table + " (creation_time)");
+            if (migrated) {
+                this.knownTables.add(name);
+            }
+
+            return true;
         } catch (final SQLException ex) {
             ex.printStackTrace();
+            return false;
         }
     }
 
     @Override
     public void deleteTable(@NotNull String table) {
-        try (PreparedStatement statement = connection.prepareStatement("DROP TABLE IF EXISTS " + table)) {
+        try (PooledConnection connection = this.connectionPool.acquire();
+             PreparedStatement statement = connection.prepareStatement("DROP TABLE IF EXISTS " + table)) {
+            this.knownTables.remove(table.toLowerCase(Locale.ROOT));
             statement.executeUpdate();
+            // statements prepared before the drop on any connection must not be used for a re-created table
+            connection.invalidateCachedStatements(table);
         } catch (final SQLException ex) {
             ex.printStackTrace();
         }
     }
 
+    @NotNull
     @Override
-    public void insert(@NotNull DatabaseObject object) {
-        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + object.getTable() + " (`key`, `value`) VALUES (?, ?)")) {
-            statement.setString(1, object.getKey());
-            statement.setBytes(2, object.serialize());
+    public Collection<String> getTables() {
+        Collection<String> tables = new ArrayList<>();
+        try (PooledConnection connection = this.connectionPool.acquire();
+             ResultSet resultSet = connection.getConnection().getMetaData().getTables(null, "PUBLIC", "%", new String[]{"TABLE"})) {
+            while (resultSet.next()) {
+                tables.add(resultSet.getString("TABLE_NAME").toLowerCase(Locale.ROOT));
+            }
+        } catch (final SQLException ex) {
+            ex.printStackTrace();
+        }
 
-            statement.executeUpdate();
+        return tables;
+    }
+
+    @Override
+    public void insert(@NotNull DatabaseObject object) {
+        try (PooledConnection connection = this.connectionPool.acquire()) {
+            this.insert(connection, object);
         } catch (final SQLException ex) {
             ex.printStackTrace();
         }
     }
 
+    private void insert(@NotNull PooledConnection connection, @NotNull DatabaseObject object) throws SQLException {
+        PreparedStatement statement = connection.prepareCachedStatement(object.getTable(), "insert",
+                () -> "INSERT INTO " + object.getTable() + " (`key`, `value`, creation_time) VALUES (?, ?, ?)");
+        statement.setString(1, object.getKey());
+        statement.setBytes(2, object.serialize());
+        this.setCreationTime(statement, 3, object);
+
+        statement.executeUpdate();
+    }
+
     @Override
     public void update(@NotNull DatabaseObject object) {
-        try (PreparedStatement statement = connection.prepareStatement("UPDATE " + object.getTable() + " SET `value` = ? WHERE `key` = ?")) {
-            statement.setBytes(1, object.serialize());
-            statement.setString(2, object.getKey());
+        try (PooledConnection connection = this.connectionPool.acquire()) {
+            this.update(connection, object);
+        } catch (final SQLException ex) {
+            ex.printStackTrace();
+        }
+    }
 
-            statement.executeUpdate();
+    private void update(@NotNull PooledConnection connection, @NotNull DatabaseObject object) throws SQLException {
+        PreparedStatement statement = connection.prepareCachedStatement(object.getTable(), "update",
+                () -> "UPDATE " + object.getTable() + " SET `value` = ?, creation_time = ? WHERE `key` = ?");
+        statement.setBytes(1, object.serialize());
+        this.setCreationTime(statement, 2, object);
+        statement.setString(3, object.getKey());
+
+        statement.executeUpdate();
+    }
+
+    @Override
+    public void upsert(@NotNull DatabaseObject object) {
+        try (PooledConnection connection = this.connectionPool.acquire()) {
+            this.upsert(connection, object);
         } catch (final SQLException ex) {
             ex.printStackTrace();
         }
     }
 
+    private void upsert(@NotNull PooledConnection connection, @NotNull DatabaseObject object) throws SQLException {
+        PreparedStatement statement = this.prepareUpsert(connection, object.getTable());
+        statement.setString(1, object.getKey());
+        statement.setBytes(2, object.serialize());
+        this.setCreationTime(statement, 3, object);
+
+        statement.executeUpdate();
+    }
+
+    @Override
+    public boolean upsertAll(@NotNull Collection<? extends DatabaseObject> objects) {
+        if (objects.isEmpty()) {
+            return true;
+        }
+
+        Map<String, List<DatabaseObject>> byTable = new HashMap<>();
+        for (DatabaseObject object : objects) {
+            byTable.computeIfAbsent(object.getTable(), table -> new ArrayList<>()).add(object);
+        }
+
+        try (PooledConnection connection = this.connectionPool.acquire()) {
+            connection.getConnection().setAutoCommit(false);
+            try {
+                for (Map.Entry<String, List<DatabaseObject>> entry : byTable.entrySet()) {
+                    PreparedStatement statement = this.prepareUpsert(connection, entry.getKey());
+                    for (DatabaseObject object : entry.getValue()) {
+                        statement.setString(1, object.getKey());
+                        statement.setBytes(2, object.serialize());
+                        this.setCreationTime(statement, 3, object);
+                        statement.addBatch();
+                    }
+
+                    statement.executeBatch();
+                }
+
+                connection.getConnection().commit();
+                return true;
+            } catch (final SQLException ex) {
+                connection.getConnection().rollback();
+                throw ex;
+            }
+        } catch (final SQLException ex) {
+            ex.printStackTrace();
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean commit(@NotNull List<TransactionOperation> operations) {
+        try (PooledConnection connection = this.connectionPool.acquire()) {
+            connection.getConnection().setAutoCommit(false);
+            try {
+                for (TransactionOperation operation : operations) {
+                    switch (operation.getType()) {
+                        case INSERT:
+                            this.insert(connection, Objects.requireNonNull(operation.getObject()));
+                            break;
+                        case UPDATE:
+                            this.update(connection, Objects.requireNonNull(operation.getObject()));
+                            break;
+                        case UPSERT:
+                            this.upsert(connection, Objects.requireNonNull(operation.getObject()));
+                            break;
+                        case DELETE:
+                            this.deleteFromTable(connection, operation.getTable(), operation.getKey());
+                            break;
+                        default:
+                            throw new IllegalStateException("Unknown operation type " + operation.getType());
+                    }
+                }
+
+                connection.getConnection().commit();
+                return true;
+            } catch (final SQLException ex) {
+                connection.getConnection().rollback();
+                throw ex;
+            }
+        } catch (final SQLException ex) {
+            ex.printStackTrace();
+        }
+
+        return false;
+    }
+
     @Override
     @Nullable
     public <T> T getOrDefault(@NotNull DatabaseObjectToken<T> databaseObjectToken, @Nullable T def) {
-        try (PreparedStatement statement = connection.prepareStatement("SELECT `value` FROM " + databaseObjectToken.getTable() + " WHERE `key` = ?")) {
+        try (PooledConnection connection = this.connectionPool.acquire()) {
+            PreparedStatement statement = connection.prepareCachedStatement(databaseObjectToken.getTable(), "get",
+                    () -> "SELECT `value` FROM " + databaseObjectToken.getTable() + " WHERE `key` = ?");
             statement.setString(1, databaseObjectToken.getKey());
 
-            ResultSet resultSet = statement.executeQuery();
-            if (!resultSet.next()) {
+            byte[] bytes;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next() || (bytes = resultSet.getBytes("value")) == null) {
+                    return def;
+                }
+            }
+
+            T result = databaseObjectToken.decode(bytes);
+            if (result == null) {
                 return def;
             }
 
-            try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(resultSet.getBytes("value")))) {
-                return databaseObjectToken.deserialize(stream);
-            } catch (final IOException ex) {
-                ex.printStackTrace();
+            if (result instanceof DatabaseObject && CodecRegistry.isOutdated(bytes)) {
+                this.rewrite(connection, databaseObjectToken, (DatabaseObject) result);
             }
+
+            return result;
         } catch (final SQLException ex) {
             ex.printStackTrace();
         }
@@ -131,27 +334,118 @@ public class H2DatabaseDriver implements DatabaseDriver {
         return def;
     }
 
+    @NotNull
     @Override
-    public <T> void forEachInTable(@NotNull String table, @NotNull Function<byte[], T> mapper, @NotNull Consumer<T> handler) {
-        try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM " + table)) {
-            ResultSet resultSet = statement.executeQuery();
+    public Map<String, byte[]> getMany(@NotNull String table, @NotNull Collection<String> keys) {
+        Map<String, byte[]> out = new HashMap<>();
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        if (distinct.isEmpty()) {
+            return out;
+        }
 
-            while (resultSet.next()) {
-                byte[] next = resultSet.getBytes("value");
-                if (next != null) {
-                    handler.accept(mapper.apply(next));
+        try (PooledConnection connection = this.connectionPool.acquire()) {
+            for (int offset = 0; offset < distinct.size(); offset += MULTI_KEY_CHUNK_SIZE) {
+                List<String> chunk = distinct.subList(offset, Math.min(offset + MULTI_KEY_CHUNK_SIZE, distinct.size()));
+                if (chunk.size() == MULTI_KEY_CHUNK_SIZE) {
+                    this.readChunk(connection.prepareCachedStatement(table, "getMany",
+                            () -> this.formatMultiKeyQuery(table, MULTI_KEY_CHUNK_SIZE)), chunk, out);
+                } else {
+                    try (PreparedStatement statement = connection.prepareStatement(this.formatMultiKeyQuery(table, chunk.size()))) {
+                        this.readChunk(statement, chunk, out);
+                    }
                 }
             }
         } catch (final SQLException ex) {
             ex.printStackTrace();
         }
+
+        return out;
+    }
+
+    @NotNull
+    private String formatMultiKeyQuery(@NotNull String table, int keys) {
+        StringBuilder query = new StringBuilder("SELECT `key`, `value` FROM ").append(table).append(" WHERE `key` IN (");
+        for (int i = 0; i < keys; i++) {
+            query.append(i == 0 ? "?" : ", ?");
+        }
+
+        return query.append(')').toString();
+    }
+
+    private void readChunk(@NotNull PreparedStatement statement, @NotNull List<String> keys,
+                           @NotNull Map<String, byte[]> out) throws SQLException {
+        for (int i = 0; i < keys.size(); i++) {
+            statement.setString(i + 1, keys.get(i));
+        }
+
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                byte[] value = resultSet.getBytes(2);
+                if (value != null) {
+                    out.put(resultSet.getString(1), value);
+                }
+            }
+        }
     }
 
     @Override
-    public void deleteFromTable(@NotNull String table, @NotNull String key) {
-        try (PreparedStatement statement = connection.prepareStatement("DELETE FROM " + table + " WHERE `key` = ?")) {
-            statement.setString(1, key);
+    public long insertMissing(@NotNull Collection<? extends DatabaseObject> objects) {
+        if (objects.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<DatabaseObject>> byTable = new HashMap<>();
+        for (DatabaseObject object : objects) {
+            byTable.computeIfAbsent(object.getTable(), table -> new ArrayList<>()).add(object);
+        }
 
+        long inserted = 0;
+        try (PooledConnection connection = this.connectionPool.acquire()) {
+            connection.getConnection().setAutoCommit(false);
+            try {
+                for (Map.Entry<String, List<DatabaseObject>> entry : byTable.entrySet()) {
+                    String table = entry.getKey();
+                    PreparedStatement statement = connection.prepareCachedStatement(table, "insertMissing",
+                            () -> "INSERT INTO " + table + " (`key`, `value`, creation_time) SELECT ?, ?, ?"
+                                    + " WHERE NOT EXISTS (SELECT 1 FROM " + table + " WHERE `key` = ?)");
+                    for (DatabaseObject object : entry.getValue()) {
+                        statement.setString(1, object.getKey());
+                        statement.setBytes(2, object.serialize());
+                        this.setCreationTime(statement, 3, object);
+                        statement.setString(4, object.getKey());
+                        statement.addBatch();
+                    }
+
+                    for (int count : statement.executeBatch()) {
+                        inserted += Math.max(count, 0);
+                    }
+                }
+
+                connection.getConnection().commit();
+            } catch (final SQLException ex) {
+                connection.getConnection().rollback();
+                throw ex;
+            }
+        } catch (final SQLException ex) {
+            ex.printStackTrace();
+            return 0;
+        }
+
+        return inserted;
+    }
+
+    private void rewrite(@NotNull PooledConnection connection, @NotNull DatabaseObjectToken<?> databaseObjectToken,
+                         @NotNull DatabaseObject object) {
+        byte[] bytes = object.serialize();
+        if (bytes.length == 0 || CodecRegistry.isLegacyFormat(bytes)) {
+            return;
+        }
+
+        try {
+            PreparedStatement statement = connection.prepareCachedStatement(databaseObjectToken.getTable(), "rewrite",
+                    () -> "UPDATE " + databaseObjectToken.getTable() + " SET `value` = ? WHERE `key` = ?");
+            statement.setBytes(1, bytes);
+            statement.setString(2, databaseObjectToken.getKey());
             statement.executeUpdate();
         } catch (final SQLException ex) {
             ex.printStackTrace();
@@ -160,31 +454,198 @@ public class H2DatabaseDriver implements DatabaseDriver {
 
     @NotNull
     @Override
-    public Stream<String> keys(@NotNull String table) {
-        Collection<String> collector = new ArrayList<>();
-        try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM " + table)) {
-            ResultSet resultSet = statement.executeQuery();
+    public <T> Stream<T> scan(@NotNull String table, @NotNull ScanOptions options, @NotNull Function<byte[], T> mapper) {
+        return this.openCursor(table, "`value`", options, resultSet -> mapper.apply(resultSet.getBytes(1)));
+    }
 
-            while (resultSet.next()) {
-                collector.add(resultSet.getString("key"));
-            }
+    @Override
+    public void deleteFromTable(@NotNull String table, @NotNull String key) {
+        try (PooledConnection connection = this.connectionPool.acquire()) {
+            this.deleteFromTable(connection, table, key);
         } catch (final SQLException ex) {
             ex.printStackTrace();
         }
+    }
 
-        return collector.stream();
+    private void deleteFromTable(@NotNull PooledConnection connection, @NotNull String table, @NotNull String key) throws SQLException {
+        PreparedStatement statement = connection.prepareCachedStatement(table, "delete",
+                () -> "DELETE FROM " + table + " WHERE `key` = ?");
+        statement.setString(1, key);
+
+        statement.executeUpdate();
     }
 
+    @NotNull
     @Override
-    public void close() {
-        if (connection != null) {
+    public Stream<String> keys(@NotNull String table, @NotNull ScanOptions options) {
+        return this.openCursor(table, "`key`", options, resultSet -> resultSet.getString(1));
+    }
+
+    @NotNull
+    private <T> Stream<T> openCursor(@NotNull String table, @NotNull String column, @NotNull ScanOptions options,
+                                     @NotNull H2Cursor.RowReader<T> reader) {
+        StringBuilder query = new StringBuilder("SELECT ").append(column).append(" FROM ").append(table)
+                .append(" WHERE ").append(column).append(" IS NOT NULL");
+        if (options.getFromKey() != null) {
+            query.append(" AND `key` >= ?");
+        }
+
+        if (options.getToKey() != null) {
+            query.append(" AND `key` < ?");
+        }
+
+        query.append(" ORDER BY `key`");
+        if (options.getLimit() >= 0) {
+            query.append(" LIMIT ?");
+        }
+
+        PooledConnection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = this.connectionPool.acquire();
+            statement = connection.prepareStatement(query.toString());
+
+            int index = 1;
+            if (options.getFromKey() != null) {
+                statement.setString(index++, options.getFromKey());
+            }
+
+            if (options.getToKey() != null) {
+                statement.setString(index++, options.getToKey());
+            }
+
+            if (options.getLimit() >= 0) {
+                statement.setLong(index, options.getLimit());
+            }
+
+            statement.setFetchSize(options.getFetchSize());
+            H2Cursor<T> cursor = H2Cursor.open(connection, statement, reader);
+            return StreamSupport.stream(cursor, false).onClose(cursor::close);
+        } catch (final SQLException ex) {
+            ex.printStackTrace();
+
             try {
+                if (statement != null) {
+                    statement.close();
+                }
+            } catch (final SQLException exception) {
+                exception.printStackTrace();
+            }
+
+            if (connection != null) {
                 connection.close();
-            } catch (final SQLException ex) {
-                ex.printStackTrace();
             }
+        }
+
+        return Stream.empty();
+    }
+
+    @Override
+    public long deleteCreatedBefore(@NotNull String table, long creationTime, int chunkSize) {
+        long deleted = 0;
+        try (PooledConnection connection = this.connectionPool.acquire()) {
+            PreparedStatement statement = connection.prepareCachedStatement(table, "deleteCreatedBefore",
+                    () -> "DELETE FROM " + table + " WHERE creation_time < ? LIMIT ?");
+            statement.setLong(1, creationTime);
+            statement.setInt(2, chunkSize);
+
+            int chunk;
+            do {
+                chunk = statement.executeUpdate();
+                deleted += chunk;
+            } while (chunk >= chunkSize);
+        } catch (final SQLException ex) {
+            ex.printStackTrace();
+        }
+
+        return deleted;
+    }
+
+    @Override
+    public long updateMissingCreationTimes(@NotNull String table, @NotNull ToLongFunction<byte[]> creationTimeReader, int chunkSize) {
+        long updated = 0;
+        try (PooledConnection connection = this.connectionPool.acquire()) {
+            PreparedStatement select = connection.prepareCachedStatement(table, "missingCreationTimes",
+                    () -> "SELECT `key`, `value` FROM " + table + " WHERE creation_time IS NULL AND `key` > ? ORDER BY `key` LIMIT ?");
+            PreparedStatement update = connection.prepareCachedStatement(table, "updateCreationTime",
+                    () -> "UPDATE " + table + " SET creation_time = ? WHERE `key` = ?");
+
+            connection.getConnection().setAutoCommit(false);
+            String lastKey = "";
+            int read;
+            do {
+                read = 0;
+                select.setString(1, lastKey);
+                select.setInt(2, chunkSize);
+
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        read++;
+                        lastKey = resultSet.getString(1);
 
-            connection = null;
+                        byte[] value = resultSet.getBytes(2);
+                        long creationTime = value == null ? -1 : creationTimeReader.applyAsLong(value);
+                        if (creationTime >= 0) {
+                            update.setLong(1, creationTime);
+                            update.setString(2, lastKey);
+                            update.addBatch();
+                        }
+                    }
+                }
+
+                for (int count : update.executeBatch()) {
+                    updated += Math.max(count, 0);
+                }
+
+                connection.getConnection().commit();
+            } while (read >= chunkSize);
+        } catch (final SQLException ex) {
+            ex.printStackTrace();
+        }
+
+        return updated;
+    }
+
+    @NotNull
+    private PreparedStatement prepareUpsert(@NotNull PooledConnection connection, @NotNull String table) throws SQLException {
+        return connection.prepareCachedStatement(table, "upsert",
+                () -> "MERGE INTO " + table + " (`key`, `value`, creation_time) KEY (`key`) VALUES (?, ?, ?)");
+    }
+
+    private void setCreationTime(@NotNull PreparedStatement statement, int index, @NotNull DatabaseObject object) throws SQLException {
+        if (object instanceof TimedDatabaseObject) {
+            statement.setLong(index, ((TimedDatabaseObject) object).getCreationTime());
+        } else {
+            statement.setNull(index, Types.BIGINT);
+        }
+    }
+
+    @NotNull
+    @Override
+    public Map<String, String> getStatistics() {
+        Map<String, String> statistics = new LinkedHashMap<>();
+        if (this.connectionPool != null) {
+            statistics.put("pool size", Integer.toString(this.connectionPool.getMaximumPoolSize()));
+            statistics.put("active connections", Integer.toString(this.connectionPool.getActiveConnections()));
+            statistics.put("idle connections", Integer.toString(this.connectionPool.getIdleConnections()));
+            statistics.put("waiting threads", Integer.toString(this.connectionPool.getWaitingThreads()));
+            statistics.put("acquisitions", Long.toString(this.connectionPool.getAcquisitions()));
+            statistics.put("average wait time", this.connectionPool.getAverageWaitTime(TimeUnit.MICROSECONDS) + "us");
+            statistics.put("maximum wait time", this.connectionPool.getMaximumWaitTime(TimeUnit.MICROSECONDS) + "us");
+            statistics.put("statement cache hits", Long.toString(this.connectionPool.getStatementCacheHits()));
+            statistics.put("statement cache misses", Long.toString(this.connectionPool.getStatementCacheMisses()));
+            statistics.put("known tables", Integer.toString(this.knownTables.size()));
+        }
+
+        return statistics;
+    }
+
+    @Override
+    public void close() {
+        if (this.connectionPool != null) {
+            this.connectionPool.close();
+            this.connectionPool = null;
+            this.knownTables.clear();
         }
     }
 }
@@ -0,0 +1,216 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.basic;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Rebuilds tables which were created before the tables had an indexed primary key into the current
+ * table layout. Every table is copied into a new table and swapped afterwards, so an interrupted
+ * migration is resumed or restarted on the next connect without losing any row. A table which contains
+ * duplicated or empty keys is not migrated, because the primary key could only be added by dropping rows.
+ * Such a table keeps the old layout until its keys are unique and gets migrated by the next attempt.
+ * The migration runs blocking on the calling thread, the table is not usable until it is finished.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+final class H2TableMigration {
+
+    private H2TableMigration() {
+        throw new UnsupportedOperationException();
+    }
+
+    private static final String MIGRATION_SUFFIX = "_MIGRATION";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final int PROGRESS_INTERVAL = 10000;
+
+    /**
+     * Migrates all tables of the database which are not in the indexed layout yet
+     *
+     * @param connection The connection to the database which should get migrated
+     * @throws SQLException If any error occurs during the migration
+     */
+    static void migrateLegacyTables(@NotNull Connection connection) throws SQLException {
+        Collection<String> tables = new ArrayList<>();
+        try (ResultSet resultSet = connection.getMetaData().getTables(null, "PUBLIC", "%", new String[]{"TABLE"})) {
+            while (resultSet.next()) {
+                tables.add(resultSet.getString("TABLE_NAME"));
+            }
+        }
+
+        for (String table : tables) {
+            if (table.endsWith(MIGRATION_SUFFIX)) {
+                resumeMigration(connection, table, tables);
+            }
+        }
+
+        for (String table : tables) {
+            if (!table.endsWith(MIGRATION_SUFFIX)) {
+                migrateIfLegacy(connection, table);
+            }
+        }
+    }
+
+    /**
+     * Migrates the given table if it is not in the indexed layout yet
+     *
+     * @param connection The connection to the database which should get migrated
+     * @param table      The upper case name of the table which should get migrated
+     * @return If the table is in the indexed layout after the call
+     * @throws SQLException If any error occurs during the migration
+     */
+    static boolean migrateIfLegacy(@NotNull Connection connection, @NotNull String table) throws SQLException {
+        if (!isLegacyTable(connection, table)) {
+            return true;
+        }
+
+        long duplicates = count(connection, "SELECT COUNT(*) FROM (SELECT `key` FROM " + table
+                + " GROUP BY `key` HAVING COUNT(*) > 1 OR `key` IS NULL)");
+        if (duplicates > 0) {
+            System.err.println("Unable to migrate table " + table + " to the indexed layout: " + duplicates
+                    + " keys are duplicated or empty, the table keeps the old layout until the keys are unique");
+            return false;
+        }
+
+        migrateTable(connection, table);
+        return true;
+    }
+
+    private static long count(@NotNull Connection connection, @NotNull String query) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static void resumeMigration(@NotNull Connection connection, @NotNull String migrationTable,
+                                        @NotNull Collection<String> tables) throws SQLException {
+        String table = migrationTable.substring(0, migrationTable.length() - MIGRATION_SUFFIX.length());
+        try (Statement statement = connection.createStatement()) {
+            if (tables.contains(table)) {
+                System.out.println("Restarting interrupted migration of table " + table);
+                statement.executeUpdate("DROP TABLE " + migrationTable);
+            } else {
+                System.out.println("Finishing interrupted migration of table " + table);
+                statement.executeUpdate("ALTER TABLE " + migrationTable + " RENAME TO " + table);
+                tables.add(table);
+            }
+        }
+
+        tables.remove(migrationTable);
+    }
+
+    private static boolean isLegacyTable(@NotNull Connection connection, @NotNull String table) throws SQLException {
+        boolean keyColumn = false;
+        try (ResultSet resultSet = connection.getMetaData().getColumns(null, "PUBLIC", table, null)) {
+            while (resultSet.next()) {
+                keyColumn |= resultSet.getString("COLUMN_NAME").toUpperCase(Locale.ROOT).equals("KEY");
+            }
+        }
+
+        if (!keyColumn) {
+            return false;
+        }
+
+        try (ResultSet resultSet = connection.getMetaData().getPrimaryKeys(null, "PUBLIC", table)) {
+            return !resultSet.next();
+        }
+    }
+
+    private static void migrateTable(@NotNull Connection connection, @NotNull String table) throws SQLException {
+        long start = System.currentTimeMillis();
+        String migrationTable = table + MIGRATION_SUFFIX;
+
+        long rows = count(connection, "SELECT COUNT(*) FROM " + table);
+
+        System.out.println("Migrating table " + table + " (" + rows + " rows) to the indexed layout");
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE " + migrationTable + H2DatabaseDriver.TABLE_LAYOUT);
+        }
+
+        long copied = 0;
+        long read = 0;
+        connection.setAutoCommit(false);
+        try (Statement select = connection.createStatement();
+             ResultSet resultSet = select.executeQuery("SELECT `key`, `value` FROM " + table + " ORDER BY _ROWID_");
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO " + migrationTable + " (`key`, `value`) VALUES (?, ?)")) {
+            while (resultSet.next()) {
+                insert.setString(1, resultSet.getString(1));
+                insert.setBytes(2, resultSet.getBytes(2));
+                insert.addBatch();
+
+                if (++read % BATCH_SIZE == 0) {
+                    copied += executeBatch(insert);
+                    connection.commit();
+                }
+
+                if (read % PROGRESS_INTERVAL == 0) {
+                    System.out.println("Migrated " + read + "/" + rows + " rows of table " + table);
+                }
+            }
+
+            copied += executeBatch(insert);
+            connection.commit();
+        } catch (final SQLException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+
+        if (copied != rows) {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("DROP TABLE " + migrationTable);
+            }
+
+            throw new SQLException("Copied " + copied + " of " + rows + " rows of table " + table + ", keeping the old table");
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DROP TABLE " + table);
+            statement.executeUpdate("ALTER TABLE " + migrationTable + " RENAME TO " + table);
+        }
+
+        System.out.println("Migrated table " + table + " with " + copied + " rows in "
+                + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    private static long executeBatch(@NotNull PreparedStatement statement) throws SQLException {
+        long inserted = 0;
+        for (int count : statement.executeBatch()) {
+            inserted += Math.max(count, 0);
+        }
+
+        return inserted;
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.batch;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import systems.reformcloud.api.GlobalAPI;
+import systems.reformcloud.database.object.DatabaseObject;
+import systems.reformcloud.util.Nameable;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffers database objects in a bounded queue and writes them in batches using
+ * {@link systems.reformcloud.database.DatabaseDriver#upsertAll(Collection)}. A batch is written as soon as
+ * it reached the batch size or the flush interval passed since its first object was queued. If the queue
+ * is full the calling thread waits until the worker made room, so the writes of a key are always applied
+ * in the order they were queued. A batch which could not be written is retried before the next batch.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public class WriteBehindQueue<T extends DatabaseObject> implements Nameable, AutoCloseable {
+
+    private static final Collection<WriteBehindQueue<?>> ACTIVE_QUEUES = new CopyOnWriteArrayList<>();
+
+    private static final int MAXIMUM_ATTEMPTS = 5;
+
+    private static final long RETRY_DELAY = 100;
+
+    public WriteBehindQueue(@NotNull String name, int capacity, int batchSize, long flushInterval) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+
+        this.worker = new Thread(this::run, "WriteBehindQueue-" + name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+
+        ACTIVE_QUEUES.add(this);
+    }
+
+    private final String name;
+
+    private final Thread worker;
+
+    private final BlockingQueue<Write> queue;
+
+    private final int batchSize;
+
+    private final long flushInterval;
+
+    private final LongAdder writtenObjects = new LongAdder();
+
+    private final LongAdder failedObjects = new LongAdder();
+
+    private final LongAdder flushes = new LongAdder();
+
+    private final LongAdder retries = new LongAdder();
+
+    private final LongAdder overflows = new LongAdder();
+
+    private final LongAdder totalFlushTime = new LongAdder();
+
+    private final AtomicLong lastFlushTime = new AtomicLong();
+
+    private final AtomicLong maximumFlushTime = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    /**
+     * @return All queues which are currently running
+     */
+    @NotNull
+    public static Collection<WriteBehindQueue<?>> getActiveQueues() {
+        return Collections.unmodifiableCollection(ACTIVE_QUEUES);
+    }
+
+    /**
+     * Queues the given object for the next batch write. Writing the same key again before the flush
+     * keeps the write order, the last queued version is the one stored in the database. If the queue
+     * is full the calling thread blocks until the object could be queued.
+     *
+     * @param object The object which should get written to the database
+     */
+    public void enqueue(@NotNull T object) {
+        this.offer(new Write(object.getTable(), object.getKey(), object));
+    }
+
+    /**
+     * Removes all queued objects with the same table and key as the given object which are not written
+     * yet, for example because the object got deleted from the database. A version of the object which is
+     * written by the worker at the moment is deleted again after its batch, so it never outlives the call.
+     *
+     * @param object The object which should get removed
+     * @return If any object with the same key was still queued
+     */
+    public boolean remove(@NotNull T object) {
+        boolean removed = this.queue.removeIf(e -> e.matches(object.getTable(), object.getKey()));
+        this.offer(new Write(object.getTable(), object.getKey(), null));
+        return removed;
+    }
+
+    private void offer(@NotNull Write write) {
+        if (this.running && this.queue.offer(write)) {
+            return;
+        }
+
+        this.overflows.increment();
+        boolean interrupted = false;
+        try {
+            while (this.running) {
+                try {
+                    if (this.queue.offer(write, this.flushInterval, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                } catch (final InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // the worker is stopped, so there is no queued write of the key left which could overwrite this one
+        this.write(Collections.singletonList(write));
+    }
+
+    private void run() {
+        List<Write> batch = new ArrayList<>(this.batchSize);
+        while (this.running || !this.queue.isEmpty()) {
+            try {
+                Write first = this.queue.poll(this.flushInterval, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.flushInterval);
+
+                while (batch.size() < this.batchSize) {
+                    this.queue.drainTo(batch, this.batchSize - batch.size());
+
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= this.batchSize || remaining <= 0 || !this.running) {
+                        break;
+                    }
+
+                    Write next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+            } catch (final InterruptedException ex) {
+                this.running = false;
+            }
+
+            this.flush(batch);
+        }
+    }
+
+    private void flush(@NotNull List<Write> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        int written = this.write(batch);
+
+        long duration = System.nanoTime() - start;
+        this.writtenObjects.add(written);
+        this.failedObjects.add(batch.size() - written);
+        this.flushes.increment();
+        this.totalFlushTime.add(duration);
+        this.lastFlushTime.set(duration);
+        this.maximumFlushTime.accumulateAndGet(duration, Math::max);
+
+        batch.clear();
+    }
+
+    /**
+     * Writes the given writes, only the last write of every key is applied. A failed write is retried
+     * with an increasing delay, the next batch is not written before the retries are done.
+     *
+     * @param batch The writes in the order they were queued
+     * @return The amount of writes which were applied
+     */
+    private int write(@NotNull List<Write> batch) {
+        Map<String, Write> latest = new LinkedHashMap<>();
+        for (Write write : batch) {
+            latest.put(write.table + '\0' + write.key, write);
+        }
+
+        Collection<DatabaseObject> upserts = new ArrayList<>();
+        Collection<Write> deletes = new ArrayList<>();
+        for (Write write : latest.values()) {
+            if (write.object == null) {
+                deletes.add(write);
+            } else {
+                upserts.add(write.object);
+            }
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (!upserts.isEmpty() && GlobalAPI.getDatabaseDriver().upsertAll(upserts)) {
+                    upserts.clear();
+                }
+
+                if (upserts.isEmpty() && !deletes.isEmpty() && GlobalAPI.getDatabaseDriver().transaction(
+                        transaction -> deletes.forEach(e -> transaction.deleteFromTable(e.table, e.key)))) {
+                    deletes.clear();
+                }
+            } catch (final Throwable throwable) {
+                throwable.printStackTrace();
+            }
+
+            if (upserts.isEmpty() && deletes.isEmpty()) {
+                return batch.size();
+            }
+
+            if (attempt >= MAXIMUM_ATTEMPTS) {
+                System.err.println("Unable to write " + (upserts.size() + deletes.size()) + " objects of queue "
+                        + this.name + " after " + attempt + " attempts, dropping them");
+                return batch.size() - upserts.size() - deletes.size();
+            }
+
+            this.retries.increment();
+            try {
+                Thread.sleep(RETRY_DELAY << (attempt - 1));
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                this.running = false;
+            }
+        }
+    }
+
+    /**
+     * @return The amount of objects which are waiting for the next flush
+     */
+    public int getQueueDepth() {
+        return this.queue.size();
+    }
+
+    /**
+     * @return The statistics of this queue by their display name
+     */
+    @NotNull
+    public Map<String, String> getStatistics() {
+        long flushes = this.flushes.sum();
+
+        Map<String, String> statistics = new LinkedHashMap<>();
+        statistics.put("queue depth", Integer.toString(this.getQueueDepth()));
+        statistics.put("written objects", Long.toString(this.writtenObjects.sum()));
+        statistics.put("failed objects", Long.toString(this.failedObjects.sum()));
+        statistics.put("flushes", Long.toString(flushes));
+        statistics.put("retries", Long.toString(this.retries.sum()));
+        statistics.put("overflows", Long.toString(this.overflows.sum()));
+        statistics.put("last flush latency", TimeUnit.NANOSECONDS.toMicros(this.lastFlushTime.get()) + "us");
+        statistics.put("average flush latency", (flushes == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(this.totalFlushTime.sum() / flushes)) + "us");
+        statistics.put("maximum flush latency", TimeUnit.NANOSECONDS.toMicros(this.maximumFlushTime.get()) + "us");
+        return statistics;
+    }
+
+    @NotNull
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Stops accepting new objects for the batches and blocks until all queued objects are written.
+     * Objects which are queued after the close are written directly by the calling thread.
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        ACTIVE_QUEUES.remove(this);
+
+        try {
+            this.worker.join();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Write> remaining = new ArrayList<>();
+        this.queue.drainTo(remaining);
+        this.flush(remaining);
+    }
+
+    /**
+     * A queued write of a key, which is a delete if it has no object
+     */
+    private static final class Write {
+
+        private Write(@NotNull String table, @NotNull String key, @Nullable DatabaseObject object) {
+            this.table = table;
+            this.key = key;
+            this.object = object;
+        }
+
+        private final String table;
+
+        private final String key;
+
+        private final DatabaseObject object;
+
+        private boolean matches(@NotNull String table, @NotNull String key) {
+            return this.table.equals(table) && this.key.equals(key);
+        }
+    }
+}
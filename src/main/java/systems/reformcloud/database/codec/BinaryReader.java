@@ -0,0 +1,125 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.codec;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Reads values from a byte array which were written by a {@link BinaryWriter}.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class BinaryReader {
+
+    BinaryReader(@NotNull byte[] buffer, int position) {
+        this.buffer = buffer;
+        this.position = position;
+    }
+
+    private final byte[] buffer;
+
+    private int position;
+
+    /**
+     * @return The next variable length integer
+     * @throws IOException If the integer is incomplete or too long
+     * @see BinaryWriter#writeVarLong(long)
+     */
+    public long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte next = this.readByte();
+            value |= (long) (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Variable length integer is longer than 64 bits");
+    }
+
+    /**
+     * @return The next zig-zag encoded variable length integer
+     * @throws IOException If the integer is incomplete or too long
+     * @see BinaryWriter#writeSignedVarLong(long)
+     */
+    public long readSignedVarLong() throws IOException {
+        long value = this.readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * @return The next length prefixed utf-8 string
+     * @throws IOException If the string is incomplete or its length is invalid
+     * @see BinaryWriter#writeString(String)
+     */
+    @NotNull
+    public String readString() throws IOException {
+        long length = this.readVarLong();
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("Invalid string length " + length);
+        }
+
+        if (length > this.buffer.length - this.position) {
+            throw new EOFException("String of " + length + " bytes exceeds the remaining " + (this.buffer.length - this.position) + " bytes");
+        }
+
+        String value = new String(this.buffer, this.position, (int) length, StandardCharsets.UTF_8);
+        this.position += (int) length;
+        return value;
+    }
+
+    /**
+     * @return The next unique id
+     * @throws IOException If the unique id is incomplete
+     * @see BinaryWriter#writeUniqueId(UUID)
+     */
+    @NotNull
+    public UUID readUniqueId() throws IOException {
+        return new UUID(this.readFixedLong(), this.readFixedLong());
+    }
+
+    private long readFixedLong() throws IOException {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (this.readByte() & 0xFF);
+        }
+
+        return value;
+    }
+
+    private byte readByte() throws IOException {
+        if (this.position >= this.buffer.length) {
+            throw new EOFException();
+        }
+
+        return this.buffer[this.position++];
+    }
+}
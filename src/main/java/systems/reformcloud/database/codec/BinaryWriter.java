@@ -0,0 +1,139 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.codec;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Writes values into a growing byte array in the compact binary format of the {@link Codec}s.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class BinaryWriter {
+
+    BinaryWriter() {
+    }
+
+    private byte[] buffer = new byte[64];
+
+    private int position;
+
+    /**
+     * Writes a single byte
+     *
+     * @param value The byte to write
+     * @return The same instance as used to call the method
+     */
+    @NotNull
+    public BinaryWriter writeByte(byte value) {
+        this.ensureCapacity(1);
+        this.buffer[this.position++] = value;
+        return this;
+    }
+
+    /**
+     * Writes a positive long as a variable length integer, which needs one byte per seven bits
+     *
+     * @param value The value to write, must not be negative
+     * @return The same instance as used to call the method
+     */
+    @NotNull
+    public BinaryWriter writeVarLong(long value) {
+        this.ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            this.buffer[this.position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        this.buffer[this.position++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * Writes a long which may be negative (for example {@code -1}) as a zig-zag encoded variable length integer
+     *
+     * @param value The value to write
+     * @return The same instance as used to call the method
+     */
+    @NotNull
+    public BinaryWriter writeSignedVarLong(long value) {
+        return this.writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Writes a string as its length followed by its utf-8 bytes
+     *
+     * @param value The string to write
+     * @return The same instance as used to call the method
+     */
+    @NotNull
+    public BinaryWriter writeString(@NotNull String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        this.writeVarLong(bytes.length);
+        this.ensureCapacity(bytes.length);
+
+        System.arraycopy(bytes, 0, this.buffer, this.position, bytes.length);
+        this.position += bytes.length;
+        return this;
+    }
+
+    /**
+     * Writes an unique id as its two 64 bit halves
+     *
+     * @param value The unique id to write
+     * @return The same instance as used to call the method
+     */
+    @NotNull
+    public BinaryWriter writeUniqueId(@NotNull UUID value) {
+        this.ensureCapacity(16);
+        this.writeFixedLong(value.getMostSignificantBits());
+        this.writeFixedLong(value.getLeastSignificantBits());
+        return this;
+    }
+
+    private void writeFixedLong(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            this.buffer[this.position++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (this.position + bytes > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length << 1, this.position + bytes));
+        }
+    }
+
+    /**
+     * @return A copy of all bytes written into this writer
+     */
+    @NotNull
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.position);
+    }
+}
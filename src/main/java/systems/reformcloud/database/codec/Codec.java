@@ -0,0 +1,68 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.codec;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Encodes and decodes one version of the binary format of a type. A type gets a new version if its
+ * format changes, the codecs of the older versions stay registered to read the old rows.
+ *
+ * @param <T> The type of the objects which get encoded by this codec
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ * @see CodecRegistry
+ */
+public interface Codec<T> {
+
+    /**
+     * @return The unique id of the type which gets encoded by this codec
+     */
+    int getType();
+
+    /**
+     * @return The version of the format which is written and read by this codec
+     */
+    int getVersion();
+
+    /**
+     * Writes the given object into the writer
+     *
+     * @param object The object to write
+     * @param writer The writer into which the object should get written
+     */
+    void write(@NotNull T object, @NotNull BinaryWriter writer);
+
+    /**
+     * Reads an object which was written by this codec
+     *
+     * @param reader The reader from which the object should get read
+     * @return The read object
+     * @throws IOException If the data is incomplete or invalid
+     */
+    @NotNull
+    T read(@NotNull BinaryReader reader) throws IOException;
+}
@@ -0,0 +1,169 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.codec;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The registry of all {@link Codec}s by their type and version. Encoded objects start with a marker byte,
+ * the type and the version of the codec, so every row can be decoded with the codec which wrote it. Rows
+ * written by an {@link java.io.ObjectOutputStream} before the codecs existed are still readable and are
+ * recognized by the stream magic of the java serialization.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class CodecRegistry {
+
+    private CodecRegistry() {
+        throw new UnsupportedOperationException();
+    }
+
+    private static final byte FORMAT_MARKER = (byte) 0xCB;
+
+    private static final byte LEGACY_MAGIC_FIRST = (byte) 0xAC;
+
+    private static final byte LEGACY_MAGIC_SECOND = (byte) 0xED;
+
+    private static final Map<Long, Codec<?>> CODECS = new ConcurrentHashMap<>();
+
+    private static final Map<Integer, Codec<?>> LATEST_CODECS = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a codec. The codec with the highest version of a type is used to encode the objects of the type.
+     *
+     * @param codec The codec to register
+     */
+    public static void register(@NotNull Codec<?> codec) {
+        Preconditions.checkArgument(codec.getType() >= 0 && codec.getVersion() >= 0, "Type and version must not be negative");
+        Preconditions.checkArgument(CODECS.putIfAbsent(key(codec.getType(), codec.getVersion()), codec) == null,
+                "Codec for type %s in version %s is already registered", codec.getType(), codec.getVersion());
+
+        LATEST_CODECS.merge(codec.getType(), codec, (old, now) -> old.getVersion() > now.getVersion() ? old : now);
+    }
+
+    /**
+     * Encodes an object with the latest codec of the type
+     *
+     * @param type   The type of the object
+     * @param object The object to encode
+     * @param <T>    The type of the object
+     * @return The encoded object
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static <T> byte[] encode(int type, @NotNull T object) {
+        Codec<T> codec = (Codec<T>) LATEST_CODECS.get(type);
+        Preconditions.checkState(codec != null, "No codec registered for type %s", type);
+
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeByte(FORMAT_MARKER).writeVarLong(type).writeVarLong(codec.getVersion());
+        codec.write(object, writer);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decodes an object, either with the codec which encoded it or with the given reader for the legacy format
+     *
+     * @param bytes        The encoded object
+     * @param legacyReader The reader of the object from an object stream if the object was written in the legacy format
+     * @param <T>          The type of the object
+     * @return The decoded object or {@code null} if the object could not get decoded
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <T> T decode(@NotNull byte[] bytes, @NotNull Function<ObjectInputStream, T> legacyReader) {
+        try {
+            if (isLegacyFormat(bytes)) {
+                try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return legacyReader.apply(stream);
+                }
+            }
+
+            if (bytes.length == 0 || bytes[0] != FORMAT_MARKER) {
+                throw new IOException("Unknown format of encoded object");
+            }
+
+            BinaryReader reader = new BinaryReader(bytes, 1);
+            long type = reader.readVarLong();
+            long version = reader.readVarLong();
+
+            Codec<?> codec = CODECS.get(key((int) type, (int) version));
+            if (codec == null) {
+                throw new IOException("No codec registered for type " + type + " in version " + version);
+            }
+
+            return (T) codec.read(reader);
+        } catch (final IOException | ClassCastException ex) {
+            ex.printStackTrace();
+        }
+
+        return null;
+    }
+
+    /**
+     * @param bytes The encoded object
+     * @return If the object was encoded by an {@link java.io.ObjectOutputStream}
+     */
+    public static boolean isLegacyFormat(@NotNull byte[] bytes) {
+        return bytes.length >= 2 && bytes[0] == LEGACY_MAGIC_FIRST && bytes[1] == LEGACY_MAGIC_SECOND;
+    }
+
+    /**
+     * Checks if an object should get encoded again, because it was not encoded by the latest codec of its type
+     *
+     * @param bytes The encoded object
+     * @return If the object is in the legacy format or was encoded by an older codec
+     */
+    public static boolean isOutdated(@NotNull byte[] bytes) {
+        if (isLegacyFormat(bytes)) {
+            return true;
+        }
+
+        if (bytes.length == 0 || bytes[0] != FORMAT_MARKER) {
+            return false;
+        }
+
+        try {
+            BinaryReader reader = new BinaryReader(bytes, 1);
+            Codec<?> latest = LATEST_CODECS.get((int) reader.readVarLong());
+            return latest != null && latest.getVersion() > reader.readVarLong();
+        } catch (final IOException ex) {
+            return false;
+        }
+    }
+
+    private static long key(int type, int version) {
+        return ((long) type << 32) | (version & 0xFFFFFFFFL);
+    }
+}
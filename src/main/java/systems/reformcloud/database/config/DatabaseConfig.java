@@ -33,9 +33,41 @@ import org.jetbrains.annotations.NotNull;
  */
 public interface DatabaseConfig {
 
+    /**
+     * @return The type of the driver which should get used, either {@code h2} or {@code mvstore}
+     */
+    @NotNull
+    String getDriverType();
+
+    /**
+     * @return The path of the file in which embedded databases store their data, without a file extension
+     */
+    @NotNull
+    String getDatabaseFile();
+
     /**
      * @return The database connection string which should get used
      */
     @NotNull
     String formatConnectionString();
+
+    /**
+     * @return The maximum amount of connections which can be open to the database at the same time
+     */
+    int getMaximumPoolSize();
+
+    /**
+     * @return The time in milliseconds after which an unused connection gets closed
+     */
+    long getIdleTimeout();
+
+    /**
+     * @return The time in milliseconds a thread waits for a free connection before the operation fails
+     */
+    long getAcquireTimeout();
+
+    /**
+     * @return The maximum amount of prepared statements which are cached per connection
+     */
+    int getStatementCacheSize();
 }
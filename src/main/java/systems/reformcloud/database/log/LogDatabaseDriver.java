@@ -0,0 +1,321 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.log;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import systems.reformcloud.database.DatabaseDriver;
+import systems.reformcloud.database.codec.CodecRegistry;
+import systems.reformcloud.database.config.DatabaseConfig;
+import systems.reformcloud.database.object.DatabaseObject;
+import systems.reformcloud.database.object.DatabaseObjectToken;
+import systems.reformcloud.database.object.TimedDatabaseObject;
+import systems.reformcloud.database.scan.ScanOptions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A database driver which appends all objects to memory mapped log files, one log per table. Every write is
+ * a single sequential append, lookups go through an in-memory index of the latest record of every key. Expired
+ * objects are removed by deleting whole segments of the log, see {@link #deleteCreatedBefore(String, long, int)}.
+ * <p>
+ * The driver is made for tables with snowflake keys like the guild messages, so all keys must be numeric.
+ * Scans sort the keys in memory, because the log has no key order.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public class LogDatabaseDriver implements DatabaseDriver {
+
+    public LogDatabaseDriver(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    private final int segmentSize;
+
+    private final Map<String, SegmentLog> logs = new ConcurrentHashMap<>();
+
+    private Path directory;
+
+    @Override
+    public boolean connect(@NotNull DatabaseConfig config) {
+        this.directory = Paths.get(config.getDatabaseFile()).resolveSibling("log");
+        try {
+            Files.createDirectories(this.directory);
+            try (Stream<Path> stream = Files.list(this.directory)) {
+                for (Path path : stream.filter(Files::isDirectory).collect(Collectors.toList())) {
+                    this.openLog(path.getFileName().toString());
+                }
+            }
+
+            return true;
+        } catch (final IOException ex) {
+            ex.printStackTrace();
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean createTable(@NotNull String table) {
+        try {
+            this.openLog(normalize(table));
+            return true;
+        } catch (final IOException ex) {
+            ex.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public void deleteTable(@NotNull String table) {
+        SegmentLog log = this.logs.remove(normalize(table));
+        if (log != null) {
+            log.delete();
+        }
+    }
+
+    @NotNull
+    @Override
+    public Collection<String> getTables() {
+        return new ArrayList<>(this.logs.keySet());
+    }
+
+    @Override
+    public void insert(@NotNull DatabaseObject object) {
+        if (!this.put(object, true, false)) {
+            System.err.println("Unable to insert " + object.getKey() + " into table " + object.getTable());
+        }
+    }
+
+    @Override
+    public void update(@NotNull DatabaseObject object) {
+        this.put(object, false, true);
+    }
+
+    @Override
+    public void upsert(@NotNull DatabaseObject object) {
+        this.put(object, false, false);
+    }
+
+    @Override
+    @Nullable
+    public <T> T getOrDefault(@NotNull DatabaseObjectToken<T> databaseObjectToken, @Nullable T def) {
+        SegmentLog log = this.log(databaseObjectToken.getTable());
+        Long key = parseKey(databaseObjectToken.getKey());
+        byte[] bytes = log == null || key == null ? null : log.get(key);
+        if (bytes == null) {
+            return def;
+        }
+
+        T result = databaseObjectToken.decode(bytes);
+        if (result == null) {
+            return def;
+        }
+
+        if (result instanceof DatabaseObject && CodecRegistry.isOutdated(bytes)) {
+            byte[] rewritten = ((DatabaseObject) result).serialize();
+            if (rewritten.length > 0 && !CodecRegistry.isLegacyFormat(rewritten)) {
+                log.put(key, log.getCreationTime(key), rewritten, false, true);
+            }
+        }
+
+        return result;
+    }
+
+    @NotNull
+    @Override
+    public Map<String, byte[]> getMany(@NotNull String table, @NotNull Collection<String> keys) {
+        Map<String, byte[]> out = new HashMap<>();
+        SegmentLog log = this.log(table);
+        if (log == null) {
+            return out;
+        }
+
+        for (String key : keys) {
+            Long parsed = parseKey(key);
+            byte[] bytes = parsed == null ? null : log.get(parsed);
+            if (bytes != null) {
+                out.put(key, bytes);
+            }
+        }
+
+        return out;
+    }
+
+    @NotNull
+    @Override
+    public <T> Stream<T> scan(@NotNull String table, @NotNull ScanOptions options, @NotNull Function<byte[], T> mapper) {
+        SegmentLog log = this.log(table);
+        if (log == null) {
+            return Stream.empty();
+        }
+
+        return this.sortedKeys(log, options)
+                .map(key -> log.get(Long.parseLong(key)))
+                .filter(Objects::nonNull)
+                .map(mapper);
+    }
+
+    @NotNull
+    @Override
+    public Stream<String> keys(@NotNull String table, @NotNull ScanOptions options) {
+        SegmentLog log = this.log(table);
+        return log == null ? Stream.empty() : this.sortedKeys(log, options);
+    }
+
+    @Override
+    public void deleteFromTable(@NotNull String table, @NotNull String key) {
+        SegmentLog log = this.log(table);
+        Long parsedKey = parseKey(key);
+        if (log != null && parsedKey != null) {
+            log.delete(parsedKey);
+        }
+    }
+
+    /**
+     * Deletes the oldest segments of the log as long as all their records were created before the given time.
+     * Because whole segments are deleted, objects may be kept a bit longer than requested.
+     */
+    @Override
+    public long deleteCreatedBefore(@NotNull String table, long creationTime, int chunkSize) {
+        SegmentLog log = this.log(table);
+        return log == null ? 0 : log.deleteSegmentsBefore(creationTime);
+    }
+
+    @Override
+    public long updateMissingCreationTimes(@NotNull String table, @NotNull ToLongFunction<byte[]> creationTimeReader, int chunkSize) {
+        SegmentLog log = this.log(table);
+        if (log == null) {
+            return 0;
+        }
+
+        long updated = 0;
+        for (Long key : new ArrayList<>(log.keys())) {
+            byte[] value;
+            if (log.getCreationTime(key) != LogSegment.NO_CREATION_TIME || (value = log.get(key)) == null) {
+                continue;
+            }
+
+            long creationTime = creationTimeReader.applyAsLong(value);
+            if (creationTime >= 0 && log.put(key, creationTime, value, false, true)) {
+                updated++;
+            }
+        }
+
+        return updated;
+    }
+
+    @NotNull
+    @Override
+    public Map<String, String> getStatistics() {
+        Map<String, String> statistics = new LinkedHashMap<>();
+        for (Map.Entry<String, SegmentLog> entry : this.logs.entrySet()) {
+            for (Map.Entry<String, String> statistic : entry.getValue().getStatistics().entrySet()) {
+                statistics.put(entry.getKey() + " " + statistic.getKey(), statistic.getValue());
+            }
+        }
+
+        return statistics;
+    }
+
+    @Override
+    public void close() {
+        for (SegmentLog log : this.logs.values()) {
+            log.force();
+        }
+
+        this.logs.clear();
+    }
+
+    private boolean put(@NotNull DatabaseObject object, boolean onlyIfAbsent, boolean onlyIfPresent) {
+        SegmentLog log = this.log(object.getTable());
+        Long key = parseKey(object.getKey());
+        if (log == null || key == null) {
+            return false;
+        }
+
+        long creationTime = object instanceof TimedDatabaseObject
+                ? ((TimedDatabaseObject) object).getCreationTime()
+                : LogSegment.NO_CREATION_TIME;
+        return log.put(key, creationTime, object.serialize(), onlyIfAbsent, onlyIfPresent);
+    }
+
+    @NotNull
+    private Stream<String> sortedKeys(@NotNull SegmentLog log, @NotNull ScanOptions options) {
+        Stream<String> keys = log.keys().stream()
+                .map(String::valueOf)
+                .filter(options::isInRange)
+                .sorted();
+        return options.getLimit() >= 0 ? keys.limit(options.getLimit()) : keys;
+    }
+
+    private void openLog(@NotNull String table) throws IOException {
+        if (this.logs.containsKey(table)) {
+            return;
+        }
+
+        synchronized (this.logs) {
+            if (!this.logs.containsKey(table)) {
+                SegmentLog log = new SegmentLog(this.directory.resolve(table), this.segmentSize);
+                log.open();
+                this.logs.put(table, log);
+            }
+        }
+    }
+
+    @Nullable
+    private SegmentLog log(@NotNull String table) {
+        SegmentLog log = this.logs.get(normalize(table));
+        if (log == null) {
+            System.err.println("Table " + table + " does not exist");
+        }
+
+        return log;
+    }
+
+    @Nullable
+    private static Long parseKey(@NotNull String key) {
+        try {
+            return Long.parseLong(key);
+        } catch (final NumberFormatException ex) {
+            System.err.println("Key " + key + " is not numeric and cannot be stored in a log");
+            return null;
+        }
+    }
+
+    @NotNull
+    private static String normalize(@NotNull String table) {
+        return table.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.log;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * A segment file of a {@link SegmentLog} which is mapped into memory. Records are only appended to a segment,
+ * a record consists of
+ * <pre>
+ * operation (1 byte) | value length (4 bytes) | key (8 bytes) | creation time (8 bytes) | crc32 (4 bytes) | value
+ * </pre>
+ * The unused rest of a segment is filled with zeros, so the first record with the operation {@code 0} marks the
+ * end of the written data. The operation of a record is written last, a record which was not written completely
+ * is detected by its checksum.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+final class LogSegment {
+
+    static final byte OPERATION_PUT = 1;
+
+    static final byte OPERATION_DELETE = 2;
+
+    static final long NO_CREATION_TIME = Long.MIN_VALUE;
+
+    private static final int HEADER_SIZE = 1 + 4 + 8 + 8 + 4;
+
+    private LogSegment(int id, @NotNull Path path, @NotNull MappedByteBuffer buffer) {
+        this.id = id;
+        this.path = path;
+        this.buffer = buffer;
+        this.writeBuffer = buffer.duplicate();
+    }
+
+    private final int id;
+
+    private final Path path;
+
+    private final MappedByteBuffer buffer;
+
+    private final ByteBuffer writeBuffer;
+
+    private int position;
+
+    private volatile long maxCreationTime = NO_CREATION_TIME;
+
+    /**
+     * Opens or creates a segment file and maps it into memory
+     *
+     * @param id       The id of the segment, which is the order of the segments in the log
+     * @param path     The path of the segment file
+     * @param capacity The size of the segment file in bytes
+     * @return The mapped segment
+     * @throws IOException If the file could not get mapped
+     */
+    @NotNull
+    static LogSegment open(int id, @NotNull Path path, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new LogSegment(id, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(capacity, channel.size())));
+        }
+    }
+
+    /**
+     * Reads all complete records of the segment and moves the write position behind the last one
+     *
+     * @param consumer The consumer of all records in the order they were written
+     */
+    void recover(@NotNull RecordConsumer consumer) {
+        ByteBuffer reader = this.buffer.duplicate();
+        int offset = 0;
+        while (offset + HEADER_SIZE <= reader.limit()) {
+            byte operation = reader.get(offset);
+            int length = reader.getInt(offset + 1);
+            if ((operation != OPERATION_PUT && operation != OPERATION_DELETE) || length < 0 || offset + HEADER_SIZE + length > reader.limit()) {
+                break;
+            }
+
+            long key = reader.getLong(offset + 5);
+            long creationTime = reader.getLong(offset + 13);
+            if (reader.getInt(offset + 21) != checksum(reader, offset, length)) {
+                System.err.println("Discarding incomplete record in log segment " + this.path + " at offset " + offset);
+                for (int i = offset; i < reader.limit(); i++) {
+                    reader.put(i, (byte) 0);
+                }
+
+                break;
+            }
+
+            this.updateMaxCreationTime(creationTime);
+            consumer.accept(operation, key, creationTime, offset);
+            offset += HEADER_SIZE + length;
+        }
+
+        this.position = offset;
+    }
+
+    /**
+     * Appends a record to the segment, the caller has to make sure that only one thread appends at the same time
+     *
+     * @param operation    The operation of the record
+     * @param key          The key of the record
+     * @param creationTime The creation time of the record or {@link #NO_CREATION_TIME}
+     * @param value        The value of the record
+     * @return The offset of the record or {@code -1} if the segment has not enough space left
+     */
+    int append(byte operation, long key, long creationTime, @NotNull byte[] value) {
+        int offset = this.position;
+        if (offset + HEADER_SIZE + value.length > this.writeBuffer.limit()) {
+            return -1;
+        }
+
+        this.writeBuffer.putInt(offset + 1, value.length);
+        this.writeBuffer.putLong(offset + 5, key);
+        this.writeBuffer.putLong(offset + 13, creationTime);
+        this.writeBuffer.position(offset + HEADER_SIZE);
+        this.writeBuffer.put(value);
+        this.writeBuffer.putInt(offset + 21, checksum(this.writeBuffer, offset, value.length));
+        this.writeBuffer.put(offset, operation);
+
+        this.position = offset + HEADER_SIZE + value.length;
+        this.updateMaxCreationTime(creationTime);
+        return offset;
+    }
+
+    /**
+     * Reads the value of the record at the given offset
+     *
+     * @param offset The offset of the record
+     * @return The value of the record
+     */
+    @NotNull
+    byte[] readValue(int offset) {
+        ByteBuffer reader = this.buffer.duplicate();
+        byte[] value = new byte[reader.getInt(offset + 1)];
+        reader.position(offset + HEADER_SIZE);
+        reader.get(value);
+        return value;
+    }
+
+    /**
+     * Reads the creation time of the record at the given offset
+     *
+     * @param offset The offset of the record
+     * @return The creation time of the record or {@link #NO_CREATION_TIME}
+     */
+    long readCreationTime(int offset) {
+        return this.buffer.getLong(offset + 13);
+    }
+
+    int getId() {
+        return this.id;
+    }
+
+    int getSize() {
+        return this.position;
+    }
+
+    int getCapacity() {
+        return this.buffer.capacity();
+    }
+
+    long getMaxCreationTime() {
+        return this.maxCreationTime;
+    }
+
+    @NotNull
+    Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Writes all changes of the segment to the disk
+     */
+    void force() {
+        this.buffer.force();
+    }
+
+    /**
+     * Deletes the segment file, the mapped memory is released once the segment is no longer referenced
+     */
+    void delete() {
+        try {
+            Files.deleteIfExists(this.path);
+        } catch (final IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private void updateMaxCreationTime(long creationTime) {
+        if (creationTime > this.maxCreationTime) {
+            this.maxCreationTime = creationTime;
+        }
+    }
+
+    private static int checksum(@NotNull ByteBuffer buffer, int offset, int length) {
+        ByteBuffer data = buffer.duplicate();
+        data.position(offset + 5).limit(offset + 21);
+
+        CRC32 crc32 = new CRC32();
+        crc32.update(data);
+
+        data.limit(offset + HEADER_SIZE + length).position(offset + HEADER_SIZE);
+        crc32.update(data);
+        return (int) crc32.getValue();
+    }
+
+    /**
+     * Consumes the records of a segment while the segment gets recovered
+     */
+    @FunctionalInterface
+    interface RecordConsumer {
+
+        void accept(byte operation, long key, long creationTime, int offset);
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.log;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The append-only log of one table, split into memory mapped {@link LogSegment}s. An in-memory index maps every
+ * key to the location of its latest record, which is the id of the segment in the upper and the offset of the
+ * record in the lower 32 bits. The index is rebuilt from the segments when the log is opened.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+final class SegmentLog {
+
+    private static final String SEGMENT_EXTENSION = ".seg";
+
+    SegmentLog(@NotNull Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final NavigableMap<Integer, LogSegment> segments = new ConcurrentSkipListMap<>();
+
+    private final Map<Long, Long> index = new ConcurrentHashMap<>();
+
+    private LogSegment activeSegment;
+
+    /**
+     * Opens all segments of the log and rebuilds the index
+     *
+     * @throws IOException If a segment could not get opened
+     */
+    synchronized void open() throws IOException {
+        Files.createDirectories(this.directory);
+
+        Collection<Path> files;
+        try (Stream<Path> stream = Files.list(this.directory)) {
+            files = stream.filter(path -> path.getFileName().toString().endsWith(SEGMENT_EXTENSION)).collect(Collectors.toList());
+        }
+
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            try {
+                int id = Integer.parseInt(name.substring(0, name.length() - SEGMENT_EXTENSION.length()));
+                this.segments.put(id, LogSegment.open(id, file, this.segmentSize));
+            } catch (final NumberFormatException ex) {
+                System.err.println("Ignoring unknown file " + file + " in log directory");
+            }
+        }
+
+        for (LogSegment segment : this.segments.values()) {
+            segment.recover((operation, key, creationTime, offset) -> {
+                if (operation == LogSegment.OPERATION_PUT) {
+                    this.index.put(key, location(segment.getId(), offset));
+                } else {
+                    this.index.remove(key);
+                }
+            });
+        }
+
+        this.activeSegment = this.segments.isEmpty() ? this.createSegment(0) : this.segments.lastEntry().getValue();
+    }
+
+    /**
+     * Appends a new value for the key
+     *
+     * @param key          The key of the value
+     * @param creationTime The creation time of the value or {@link LogSegment#NO_CREATION_TIME}
+     * @param value        The value to store
+     * @param onlyIfAbsent If the value should only get stored if the key has no value yet
+     * @param onlyIfPresent If the value should only get stored if the key has a value already
+     * @return If the value was stored
+     */
+    synchronized boolean put(long key, long creationTime, @NotNull byte[] value, boolean onlyIfAbsent, boolean onlyIfPresent) {
+        boolean present = this.index.containsKey(key);
+        if ((onlyIfAbsent && present) || (onlyIfPresent && !present)) {
+            return false;
+        }
+
+        long location = this.append(LogSegment.OPERATION_PUT, key, creationTime, value);
+        if (location < 0) {
+            return false;
+        }
+
+        this.index.put(key, location);
+        return true;
+    }
+
+    /**
+     * Appends a delete record for the key if the key has a value
+     *
+     * @param key The key which should get deleted
+     */
+    synchronized void delete(long key) {
+        if (this.index.containsKey(key) && this.append(LogSegment.OPERATION_DELETE, key, LogSegment.NO_CREATION_TIME, new byte[0]) >= 0) {
+            this.index.remove(key);
+        }
+    }
+
+    /**
+     * @param key The key of the value
+     * @return The latest value of the key or {@code null} if the key has no value
+     */
+    @Nullable
+    byte[] get(long key) {
+        Long location = this.index.get(key);
+        LogSegment segment = location == null ? null : this.segments.get(segmentId(location));
+        return segment == null ? null : segment.readValue(offset(location));
+    }
+
+    /**
+     * @param key The key of the value
+     * @return The creation time of the latest value of the key or {@link LogSegment#NO_CREATION_TIME}
+     */
+    long getCreationTime(long key) {
+        Long location = this.index.get(key);
+        LogSegment segment = location == null ? null : this.segments.get(segmentId(location));
+        return segment == null ? LogSegment.NO_CREATION_TIME : segment.readCreationTime(offset(location));
+    }
+
+    /**
+     * @return All keys which currently have a value
+     */
+    @NotNull
+    Collection<Long> keys() {
+        return this.index.keySet();
+    }
+
+    /**
+     * Deletes the oldest segments as long as all their records were created before the given time. The
+     * active segment is never deleted.
+     *
+     * @param creationTime The time before which all records of a deleted segment must have been created
+     * @return The amount of values which were removed with the deleted segments
+     */
+    synchronized long deleteSegmentsBefore(long creationTime) {
+        long removed = 0;
+        for (LogSegment segment : this.segments.values()) {
+            if (segment == this.activeSegment || segment.getMaxCreationTime() >= creationTime) {
+                break;
+            }
+
+            this.segments.remove(segment.getId());
+            Iterator<Long> locations = this.index.values().iterator();
+            while (locations.hasNext()) {
+                if (segmentId(locations.next()) == segment.getId()) {
+                    locations.remove();
+                    removed++;
+                }
+            }
+
+            segment.delete();
+        }
+
+        return removed;
+    }
+
+    /**
+     * @return The statistics of the log by their display name
+     */
+    @NotNull
+    Map<String, String> getStatistics() {
+        long bytes = 0;
+        for (LogSegment segment : this.segments.values()) {
+            bytes += segment.getSize();
+        }
+
+        Map<String, String> statistics = new LinkedHashMap<>();
+        statistics.put("segments", Integer.toString(this.segments.size()));
+        statistics.put("records", Integer.toString(this.index.size()));
+        statistics.put("size", (bytes >> 10) + "KiB");
+        return statistics;
+    }
+
+    /**
+     * Writes all changes to the disk
+     */
+    void force() {
+        for (LogSegment segment : this.segments.values()) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Deletes all segments and the directory of the log
+     */
+    synchronized void delete() {
+        for (LogSegment segment : this.segments.values()) {
+            segment.delete();
+        }
+
+        this.segments.clear();
+        this.index.clear();
+
+        try {
+            Files.deleteIfExists(this.directory);
+        } catch (final IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private long append(byte operation, long key, long creationTime, @NotNull byte[] value) {
+        int offset = this.activeSegment.append(operation, key, creationTime, value);
+        if (offset < 0) {
+            try {
+                this.activeSegment.force();
+                this.activeSegment = this.createSegment(this.activeSegment.getId() + 1);
+            } catch (final IOException ex) {
+                ex.printStackTrace();
+                return -1;
+            }
+
+            offset = this.activeSegment.append(operation, key, creationTime, value);
+            if (offset < 0) {
+                System.err.println("Unable to append record of " + value.length + " bytes to a log segment of " + this.segmentSize + " bytes");
+                return -1;
+            }
+        }
+
+        return location(this.activeSegment.getId(), offset);
+    }
+
+    @NotNull
+    private LogSegment createSegment(int id) throws IOException {
+        LogSegment segment = LogSegment.open(id, this.directory.resolve(String.format("%010d", id) + SEGMENT_EXTENSION), this.segmentSize);
+        this.segments.put(id, segment);
+        return segment;
+    }
+
+    private static long location(int segmentId, int offset) {
+        return ((long) segmentId << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int segmentId(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int offset(long location) {
+        return (int) location;
+    }
+}
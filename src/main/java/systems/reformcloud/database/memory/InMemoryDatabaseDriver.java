@@ -0,0 +1,369 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.memory;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import systems.reformcloud.database.DatabaseDriver;
+import systems.reformcloud.database.codec.CodecRegistry;
+import systems.reformcloud.database.config.DatabaseConfig;
+import systems.reformcloud.database.object.DatabaseObject;
+import systems.reformcloud.database.object.DatabaseObjectToken;
+import systems.reformcloud.database.object.TimedDatabaseObject;
+import systems.reformcloud.database.scan.ScanOptions;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * A database driver which keeps all tables in memory and loses them when it gets closed. Every table is a
+ * sorted map, so keys are scanned in the same ascending order as by the other drivers. An optional latency
+ * is added to every operation to simulate the round trip to a real database.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public class InMemoryDatabaseDriver implements DatabaseDriver {
+
+    private static final long NO_CREATION_TIME = Long.MIN_VALUE;
+
+    public InMemoryDatabaseDriver() {
+        this(0, TimeUnit.NANOSECONDS);
+    }
+
+    public InMemoryDatabaseDriver(long latency, @NotNull TimeUnit timeUnit) {
+        this.latencyNanos = timeUnit.toNanos(latency);
+    }
+
+    private final long latencyNanos;
+
+    private final Map<String, ConcurrentNavigableMap<String, Row>> tables = new ConcurrentHashMap<>();
+
+    private final LongAdder operations = new LongAdder();
+
+    @Override
+    public boolean connect(@NotNull DatabaseConfig config) {
+        return true;
+    }
+
+    @Override
+    public boolean createTable(@NotNull String table) {
+        this.simulateLatency();
+        this.tables.computeIfAbsent(normalize(table), name -> new ConcurrentSkipListMap<>());
+        return true;
+    }
+
+    @Override
+    public void deleteTable(@NotNull String table) {
+        this.simulateLatency();
+        this.tables.remove(normalize(table));
+    }
+
+    @NotNull
+    @Override
+    public Collection<String> getTables() {
+        this.simulateLatency();
+        return new ArrayList<>(this.tables.keySet());
+    }
+
+    @Override
+    public void insert(@NotNull DatabaseObject object) {
+        ConcurrentNavigableMap<String, Row> table = this.table(object.getTable());
+        if (table != null && table.putIfAbsent(object.getKey(), new Row(object)) != null) {
+            System.err.println("Unable to insert " + object.getKey() + " into table " + object.getTable() + ": the key already exists");
+        }
+    }
+
+    @Override
+    public void update(@NotNull DatabaseObject object) {
+        ConcurrentNavigableMap<String, Row> table = this.table(object.getTable());
+        if (table != null) {
+            table.replace(object.getKey(), new Row(object));
+        }
+    }
+
+    @Override
+    public void upsert(@NotNull DatabaseObject object) {
+        ConcurrentNavigableMap<String, Row> table = this.table(object.getTable());
+        if (table != null) {
+            table.put(object.getKey(), new Row(object));
+        }
+    }
+
+    @Override
+    public boolean upsertAll(@NotNull Collection<? extends DatabaseObject> objects) {
+        this.simulateLatency();
+
+        // like the batch of a database nothing gets written if one of the tables does not exist
+        Map<String, ConcurrentNavigableMap<String, Row>> tables = new HashMap<>();
+        for (DatabaseObject object : objects) {
+            ConcurrentNavigableMap<String, Row> table = this.tables.get(normalize(object.getTable()));
+            if (table == null) {
+                System.err.println("Table " + object.getTable() + " does not exist");
+                return false;
+            }
+
+            tables.put(object.getTable(), table);
+        }
+
+        for (DatabaseObject object : objects) {
+            tables.get(object.getTable()).put(object.getKey(), new Row(object));
+        }
+
+        return true;
+    }
+
+    @Override
+    @Nullable
+    public <T> T getOrDefault(@NotNull DatabaseObjectToken<T> databaseObjectToken, @Nullable T def) {
+        ConcurrentNavigableMap<String, Row> table = this.table(databaseObjectToken.getTable());
+        Row row = table == null ? null : table.get(databaseObjectToken.getKey());
+        if (row == null) {
+            return def;
+        }
+
+        T result = databaseObjectToken.decode(row.value);
+        if (result == null) {
+            return def;
+        }
+
+        if (result instanceof DatabaseObject && CodecRegistry.isOutdated(row.value)) {
+            byte[] rewritten = ((DatabaseObject) result).serialize();
+            if (rewritten.length > 0 && !CodecRegistry.isLegacyFormat(rewritten)) {
+                table.replace(databaseObjectToken.getKey(), row, new Row(row.creationTime, rewritten));
+            }
+        }
+
+        return result;
+    }
+
+    @NotNull
+    @Override
+    public Map<String, byte[]> getMany(@NotNull String table, @NotNull Collection<String> keys) {
+        Map<String, byte[]> out = new HashMap<>();
+        ConcurrentNavigableMap<String, Row> map = this.table(table);
+        if (map == null) {
+            return out;
+        }
+
+        for (String key : keys) {
+            Row row = map.get(key);
+            if (row != null) {
+                out.put(key, row.value);
+            }
+        }
+
+        return out;
+    }
+
+    @NotNull
+    @Override
+    public <T> Stream<T> scan(@NotNull String table, @NotNull ScanOptions options, @NotNull Function<byte[], T> mapper) {
+        return this.range(table, options).values().stream().map(row -> mapper.apply(row.value));
+    }
+
+    @NotNull
+    @Override
+    public Stream<String> keys(@NotNull String table, @NotNull ScanOptions options) {
+        return this.range(table, options).keySet().stream();
+    }
+
+    @NotNull
+    private ConcurrentNavigableMap<String, Row> range(@NotNull String table, @NotNull ScanOptions options) {
+        ConcurrentNavigableMap<String, Row> map = this.table(table);
+        if (map == null) {
+            return new ConcurrentSkipListMap<>();
+        }
+
+        if (options.getFromKey() != null) {
+            map = map.tailMap(options.getFromKey(), true);
+        }
+
+        if (options.getToKey() != null) {
+            map = map.headMap(options.getToKey(), false);
+        }
+
+        if (options.getLimit() >= 0) {
+            ConcurrentNavigableMap<String, Row> limited = new ConcurrentSkipListMap<>();
+            for (Map.Entry<String, Row> entry : map.entrySet()) {
+                if (limited.size() >= options.getLimit()) {
+                    break;
+                }
+
+                limited.put(entry.getKey(), entry.getValue());
+            }
+
+            return limited;
+        }
+
+        return map;
+    }
+
+    @Override
+    public void deleteFromTable(@NotNull String table, @NotNull String key) {
+        ConcurrentNavigableMap<String, Row> map = this.table(table);
+        if (map != null) {
+            map.remove(key);
+        }
+    }
+
+    @Override
+    public long deleteCreatedBefore(@NotNull String table, long creationTime, int chunkSize) {
+        ConcurrentNavigableMap<String, Row> map = this.table(table);
+        if (map == null) {
+            return 0;
+        }
+
+        long deleted = 0;
+        Map<String, Row> chunk = new HashMap<>();
+        for (Map.Entry<String, Row> entry : map.entrySet()) {
+            Row row = entry.getValue();
+            if (row.creationTime != NO_CREATION_TIME && row.creationTime < creationTime) {
+                chunk.put(entry.getKey(), row);
+            }
+
+            if (chunk.size() >= chunkSize) {
+                deleted += this.deleteChunk(map, chunk);
+            }
+        }
+
+        return deleted + this.deleteChunk(map, chunk);
+    }
+
+    /**
+     * Deletes a chunk of rows as one operation, rows which changed since they were read are kept
+     *
+     * @param map   The table from which the rows should get deleted
+     * @param chunk The rows to delete, the chunk is empty afterwards
+     * @return The amount of deleted rows
+     */
+    private long deleteChunk(@NotNull ConcurrentNavigableMap<String, Row> map, @NotNull Map<String, Row> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        this.simulateLatency();
+        long deleted = 0;
+        for (Map.Entry<String, Row> entry : chunk.entrySet()) {
+            if (map.remove(entry.getKey(), entry.getValue())) {
+                deleted++;
+            }
+        }
+
+        chunk.clear();
+        return deleted;
+    }
+
+    @Override
+    public long updateMissingCreationTimes(@NotNull String table, @NotNull ToLongFunction<byte[]> creationTimeReader, int chunkSize) {
+        ConcurrentNavigableMap<String, Row> map = this.table(table);
+        if (map == null) {
+            return 0;
+        }
+
+        long updated = 0;
+        for (Map.Entry<String, Row> entry : map.entrySet()) {
+            Row row = entry.getValue();
+            if (row.creationTime != NO_CREATION_TIME) {
+                continue;
+            }
+
+            long creationTime = creationTimeReader.applyAsLong(row.value);
+            if (creationTime >= 0 && map.replace(entry.getKey(), row, new Row(creationTime, row.value))) {
+                updated++;
+            }
+        }
+
+        return updated;
+    }
+
+    @NotNull
+    @Override
+    public Map<String, String> getStatistics() {
+        long rows = 0;
+        for (ConcurrentNavigableMap<String, Row> table : this.tables.values()) {
+            rows += table.size();
+        }
+
+        Map<String, String> statistics = new LinkedHashMap<>();
+        statistics.put("tables", Integer.toString(this.tables.size()));
+        statistics.put("rows", Long.toString(rows));
+        statistics.put("operations", Long.toString(this.operations.sum()));
+        statistics.put("simulated latency", TimeUnit.NANOSECONDS.toMicros(this.latencyNanos) + "us");
+        return statistics;
+    }
+
+    @Override
+    public void close() {
+        this.tables.clear();
+    }
+
+    @Nullable
+    private ConcurrentNavigableMap<String, Row> table(@NotNull String table) {
+        this.simulateLatency();
+
+        ConcurrentNavigableMap<String, Row> map = this.tables.get(normalize(table));
+        if (map == null) {
+            System.err.println("Table " + table + " does not exist");
+        }
+
+        return map;
+    }
+
+    private void simulateLatency() {
+        this.operations.increment();
+        if (this.latencyNanos > 0) {
+            LockSupport.parkNanos(this.latencyNanos);
+        }
+    }
+
+    @NotNull
+    private static String normalize(@NotNull String table) {
+        return table.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Row {
+
+        private Row(@NotNull DatabaseObject object) {
+            this(object instanceof TimedDatabaseObject ? ((TimedDatabaseObject) object).getCreationTime() : NO_CREATION_TIME, object.serialize());
+        }
+
+        private Row(long creationTime, @NotNull byte[] value) {
+            this.creationTime = creationTime;
+            this.value = value;
+        }
+
+        private final long creationTime;
+
+        private final byte[] value;
+    }
+}
@@ -0,0 +1,546 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.mvstore;
+
+import org.h2.mvstore.Cursor;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import systems.reformcloud.database.DatabaseDriver;
+import systems.reformcloud.database.codec.CodecRegistry;
+import systems.reformcloud.database.config.DatabaseConfig;
+import systems.reformcloud.database.object.DatabaseObject;
+import systems.reformcloud.database.object.DatabaseObjectToken;
+import systems.reformcloud.database.object.TimedDatabaseObject;
+import systems.reformcloud.database.scan.ScanOptions;
+import systems.reformcloud.database.transaction.TransactionOperation;
+import systems.reformcloud.util.Constants;
+import systems.reformcloud.util.FileUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A database driver which stores every table as a map of an embedded {@link MVStore}, without the sql layer
+ * of h2 in between. A row is stored as its creation time followed by the encoded object, a second map per
+ * table indexes the rows by their creation time. The store persists all changes copy-on-write once per second.
+ * <p>
+ * The automatic commits of the store are disabled, so a background commit never persists a half applied
+ * transaction. Single writes share a lock, a transaction and the commits of the store take it exclusively.
+ * A transaction which fails is rolled back to the state before it was applied.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public class MVStoreDatabaseDriver implements DatabaseDriver {
+
+    private static final String FILE_EXTENSION = ".kv.db";
+
+    private static final String INDEX_SUFFIX = "$creation_time";
+
+    private static final long NO_CREATION_TIME = Long.MIN_VALUE;
+
+    private static final long COMMIT_INTERVAL = 1000;
+
+    private final Map<String, MVMap<String, byte[]>> tables = new ConcurrentHashMap<>();
+
+    private final Map<String, MVMap<String, String>> indexes = new ConcurrentHashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private MVStore store;
+
+    private ScheduledFuture<?> commitTask;
+
+    @Override
+    public boolean connect(@NotNull DatabaseConfig config) {
+        try {
+            Path file = Paths.get(config.getDatabaseFile() + FILE_EXTENSION);
+            if (file.getParent() != null) {
+                FileUtils.createDirectories(file.getParent());
+            }
+
+            this.store = new MVStore.Builder().fileName(file.toString()).autoCommitDisabled().open();
+            for (String name : this.store.getMapNames()) {
+                if (!name.endsWith(INDEX_SUFFIX)) {
+                    this.tables.put(name, this.store.openMap(name));
+                    this.indexes.put(name, this.store.openMap(name + INDEX_SUFFIX));
+                }
+            }
+
+            this.commitTask = Constants.SCHEDULED_EXECUTOR_SERVICE.scheduleAtFixedRate(
+                    this::tryCommitStore,
+                    COMMIT_INTERVAL,
+                    COMMIT_INTERVAL,
+                    TimeUnit.MILLISECONDS
+            );
+            return true;
+        } catch (final IllegalStateException | IllegalArgumentException ex) {
+            ex.printStackTrace();
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean createTable(@NotNull String table) {
+        this.lock.readLock().lock();
+        try {
+            this.tables.computeIfAbsent(normalize(table), name -> {
+                this.indexes.put(name, this.store.openMap(name + INDEX_SUFFIX));
+                return this.store.openMap(name);
+            });
+            return true;
+        } catch (final IllegalStateException ex) {
+            ex.printStackTrace();
+            return false;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteTable(@NotNull String table) {
+        this.lock.readLock().lock();
+        try {
+            MVMap<String, byte[]> map = this.tables.remove(normalize(table));
+            if (map != null) {
+                this.store.removeMap(map);
+                this.store.removeMap(this.indexes.remove(normalize(table)));
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @NotNull
+    @Override
+    public Collection<String> getTables() {
+        return new ArrayList<>(this.tables.keySet());
+    }
+
+    @Override
+    public void insert(@NotNull DatabaseObject object) {
+        MVMap<String, byte[]> map = this.table(object.getTable());
+        if (map == null) {
+            return;
+        }
+
+        byte[] row = row(object);
+        this.lock.readLock().lock();
+        try {
+            if (map.putIfAbsent(object.getKey(), row) != null) {
+                System.err.println("Unable to insert " + object.getKey() + " into table " + object.getTable() + ": the key already exists");
+                return;
+            }
+
+            this.updateIndex(object.getTable(), object.getKey(), null, row);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(@NotNull DatabaseObject object) {
+        MVMap<String, byte[]> map = this.table(object.getTable());
+        if (map == null) {
+            return;
+        }
+
+        byte[] row = row(object);
+        this.lock.readLock().lock();
+        try {
+            byte[] old = map.replace(object.getKey(), row);
+            if (old != null) {
+                this.updateIndex(object.getTable(), object.getKey(), old, row);
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(@NotNull DatabaseObject object) {
+        MVMap<String, byte[]> map = this.table(object.getTable());
+        if (map == null) {
+            return;
+        }
+
+        byte[] row = row(object);
+        this.lock.readLock().lock();
+        try {
+            this.updateIndex(object.getTable(), object.getKey(), map.put(object.getKey(), row), row);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean commit(@NotNull List<TransactionOperation> operations) {
+        this.lock.writeLock().lock();
+        try {
+            // persist the single writes first, a rollback must only revert the operations of this transaction
+            this.store.commit();
+            try {
+                for (TransactionOperation operation : operations) {
+                    operation.applyTo(this);
+                }
+            } catch (final RuntimeException ex) {
+                this.store.rollback();
+                ex.printStackTrace();
+                return false;
+            }
+
+            this.store.commit();
+            return true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    @Nullable
+    public <T> T getOrDefault(@NotNull DatabaseObjectToken<T> databaseObjectToken, @Nullable T def) {
+        MVMap<String, byte[]> map = this.table(databaseObjectToken.getTable());
+        byte[] row = map == null ? null : map.get(databaseObjectToken.getKey());
+        if (row == null) {
+            return def;
+        }
+
+        byte[] bytes = value(row);
+        T result = databaseObjectToken.decode(bytes);
+        if (result == null) {
+            return def;
+        }
+
+        if (result instanceof DatabaseObject && CodecRegistry.isOutdated(bytes)) {
+            byte[] rewritten = ((DatabaseObject) result).serialize();
+            if (rewritten.length > 0 && !CodecRegistry.isLegacyFormat(rewritten)) {
+                this.lock.readLock().lock();
+                try {
+                    map.replace(databaseObjectToken.getKey(), row, row(creationTime(row), rewritten));
+                } finally {
+                    this.lock.readLock().unlock();
+                }
+            }
+        }
+
+        return result;
+    }
+
+    @NotNull
+    @Override
+    public Map<String, byte[]> getMany(@NotNull String table, @NotNull Collection<String> keys) {
+        Map<String, byte[]> out = new HashMap<>();
+        MVMap<String, byte[]> map = this.table(table);
+        if (map == null) {
+            return out;
+        }
+
+        for (String key : keys) {
+            byte[] row = map.get(key);
+            if (row != null) {
+                out.put(key, value(row));
+            }
+        }
+
+        return out;
+    }
+
+    @NotNull
+    @Override
+    public <T> Stream<T> scan(@NotNull String table, @NotNull ScanOptions options, @NotNull Function<byte[], T> mapper) {
+        return this.openCursor(table, options, (key, row) -> mapper.apply(value(row)));
+    }
+
+    @NotNull
+    @Override
+    public Stream<String> keys(@NotNull String table, @NotNull ScanOptions options) {
+        return this.openCursor(table, options, (key, row) -> key);
+    }
+
+    @NotNull
+    private <T> Stream<T> openCursor(@NotNull String table, @NotNull ScanOptions options, @NotNull BiFunction<String, byte[], T> reader) {
+        MVMap<String, byte[]> map = this.table(table);
+        if (map == null) {
+            return Stream.empty();
+        }
+
+        Cursor<String, byte[]> cursor = map.cursor(options.getFromKey());
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+
+            private long read;
+
+            @Override
+            public boolean tryAdvance(@NotNull Consumer<? super T> action) {
+                if ((options.getLimit() >= 0 && this.read >= options.getLimit()) || !cursor.hasNext()) {
+                    return false;
+                }
+
+                String key = cursor.next();
+                if (options.getToKey() != null && key.compareTo(options.getToKey()) >= 0) {
+                    return false;
+                }
+
+                this.read++;
+                action.accept(reader.apply(key, cursor.getValue()));
+                return true;
+            }
+        }, false);
+    }
+
+    @Override
+    public void deleteFromTable(@NotNull String table, @NotNull String key) {
+        MVMap<String, byte[]> map = this.table(table);
+        if (map == null) {
+            return;
+        }
+
+        this.lock.readLock().lock();
+        try {
+            byte[] old = map.remove(key);
+            if (old != null) {
+                this.updateIndex(table, key, old, null);
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long deleteCreatedBefore(@NotNull String table, long creationTime, int chunkSize) {
+        MVMap<String, byte[]> map = this.table(table);
+        if (map == null) {
+            return 0;
+        }
+
+        MVMap<String, String> index = this.indexes.get(normalize(table));
+        String end = indexKey(creationTime, "");
+
+        long deleted = 0;
+        Collection<String> chunk = new ArrayList<>();
+        do {
+            chunk.clear();
+            Iterator<String> iterator = index.keyIterator(null);
+            while (iterator.hasNext() && chunk.size() < chunkSize) {
+                String indexKey = iterator.next();
+                if (indexKey.compareTo(end) >= 0) {
+                    break;
+                }
+
+                chunk.add(indexKey);
+            }
+
+            this.lock.readLock().lock();
+            try {
+                for (String indexKey : chunk) {
+                    String key = index.remove(indexKey);
+                    byte[] row = key == null ? null : map.get(key);
+
+                    // the index may still contain an entry of a row which was overwritten concurrently
+                    if (row != null && indexKey.equals(indexKey(creationTime(row), key)) && map.remove(key, row)) {
+                        deleted++;
+                    }
+                }
+            } finally {
+                this.lock.readLock().unlock();
+            }
+
+            this.commitStore();
+        } while (chunk.size() >= chunkSize);
+
+        return deleted;
+    }
+
+    @Override
+    public long updateMissingCreationTimes(@NotNull String table, @NotNull ToLongFunction<byte[]> creationTimeReader, int chunkSize) {
+        MVMap<String, byte[]> map = this.table(table);
+        if (map == null) {
+            return 0;
+        }
+
+        long updated = 0;
+        Cursor<String, byte[]> cursor = map.cursor(null);
+        while (cursor.hasNext()) {
+            String key = cursor.next();
+            byte[] row = cursor.getValue();
+            if (creationTime(row) != NO_CREATION_TIME) {
+                continue;
+            }
+
+            long creationTime = creationTimeReader.applyAsLong(value(row));
+            byte[] newRow = row(creationTime, value(row));
+            if (creationTime < 0) {
+                continue;
+            }
+
+            this.lock.readLock().lock();
+            try {
+                if (!map.replace(key, row, newRow)) {
+                    continue;
+                }
+
+                this.updateIndex(table, key, row, newRow);
+            } finally {
+                this.lock.readLock().unlock();
+            }
+
+            if (++updated % chunkSize == 0) {
+                this.commitStore();
+            }
+        }
+
+        this.commitStore();
+        return updated;
+    }
+
+    @NotNull
+    @Override
+    public Map<String, String> getStatistics() {
+        Map<String, String> statistics = new LinkedHashMap<>();
+        if (this.store != null) {
+            statistics.put("tables", Integer.toString(this.tables.size()));
+            statistics.put("file size", (this.store.getFileStore().size() >> 10) + "KiB");
+            statistics.put("file fill rate", this.store.getFileStore().getFillRate() + "%");
+            statistics.put("cache used", this.store.getCacheSizeUsed() + "MiB");
+            statistics.put("unsaved memory", (this.store.getUnsavedMemory() >> 10) + "KiB");
+            statistics.put("version", Long.toString(this.store.getCurrentVersion()));
+        }
+
+        return statistics;
+    }
+
+    @Override
+    public void close() {
+        if (this.store != null) {
+            this.commitTask.cancel(false);
+            this.commitStore();
+            this.store.close();
+            this.store = null;
+            this.tables.clear();
+            this.indexes.clear();
+        }
+    }
+
+    private void commitStore() {
+        this.lock.writeLock().lock();
+        try {
+            this.store.commit();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void tryCommitStore() {
+        // a running transaction commits itself, the scheduler thread should not wait for it
+        MVStore store = this.store;
+        Lock writeLock = this.lock.writeLock();
+        if (store != null && writeLock.tryLock()) {
+            try {
+                store.commit();
+            } catch (final IllegalStateException ex) {
+                ex.printStackTrace();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    @Nullable
+    private MVMap<String, byte[]> table(@NotNull String table) {
+        MVMap<String, byte[]> map = this.tables.get(normalize(table));
+        if (map == null) {
+            System.err.println("Table " + table + " does not exist");
+        }
+
+        return map;
+    }
+
+    private void updateIndex(@NotNull String table, @NotNull String key, @Nullable byte[] oldRow, @Nullable byte[] newRow) {
+        long oldCreationTime = oldRow == null ? NO_CREATION_TIME : creationTime(oldRow);
+        long newCreationTime = newRow == null ? NO_CREATION_TIME : creationTime(newRow);
+        if (oldCreationTime == newCreationTime) {
+            return;
+        }
+
+        MVMap<String, String> index = this.indexes.get(normalize(table));
+        if (oldCreationTime != NO_CREATION_TIME) {
+            index.remove(indexKey(oldCreationTime, key));
+        }
+
+        if (newCreationTime != NO_CREATION_TIME) {
+            index.put(indexKey(newCreationTime, key), key);
+        }
+    }
+
+    @NotNull
+    private static String normalize(@NotNull String table) {
+        return table.toLowerCase(Locale.ROOT);
+    }
+
+    @NotNull
+    private static String indexKey(long creationTime, @NotNull String key) {
+        String time = Long.toString(creationTime);
+        StringBuilder builder = new StringBuilder(20 + key.length());
+        for (int i = time.length(); i < 19; i++) {
+            builder.append('0');
+        }
+
+        return builder.append(time).append(':').append(key).toString();
+    }
+
+    @NotNull
+    private static byte[] row(@NotNull DatabaseObject object) {
+        return row(object instanceof TimedDatabaseObject ? ((TimedDatabaseObject) object).getCreationTime() : NO_CREATION_TIME, object.serialize());
+    }
+
+    @NotNull
+    private static byte[] row(long creationTime, @NotNull byte[] value) {
+        return ByteBuffer.allocate(Long.BYTES + value.length).putLong(creationTime).put(value).array();
+    }
+
+    private static long creationTime(@NotNull byte[] row) {
+        return ByteBuffer.wrap(row).getLong();
+    }
+
+    @NotNull
+    private static byte[] value(@NotNull byte[] row) {
+        return Arrays.copyOfRange(row, Long.BYTES, row.length);
+    }
+}
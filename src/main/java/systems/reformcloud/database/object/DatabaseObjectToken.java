@@ -24,6 +24,8 @@
 package systems.reformcloud.database.object;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import systems.reformcloud.database.codec.CodecRegistry;
 
 import java.io.ObjectInputStream;
 import java.util.function.Function;
@@ -69,6 +71,18 @@ public abstract class DatabaseObjectToken<T> {
         };
     }
 
+    /**
+     * Decodes an object from the bytes stored in the database. Objects written by a {@link systems.reformcloud.database.codec.Codec}
+     * are decoded by the codec, objects in the legacy format are read by {@link #deserialize(ObjectInputStream)}.
+     *
+     * @param bytes The bytes stored in the database
+     * @return The decoded object or {@code null} if the object could not get decoded
+     */
+    @Nullable
+    public T decode(@NotNull byte[] bytes) {
+        return CodecRegistry.decode(bytes, this::deserialize);
+    }
+
     /**
      * Deserializes an object from the database.
      *
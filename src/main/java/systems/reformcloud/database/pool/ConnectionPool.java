@@ -0,0 +1,288 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.pool;
+
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.util.Constants;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of jdbc connections. Idle connections are handed out last in first out so the
+ * oldest idle connections get closed after the idle timeout while at least one connection
+ * stays open to keep embedded databases from shutting down.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    public ConnectionPool(@NotNull String connectionString, int maximumPoolSize, long idleTimeout, long acquireTimeout,
+                          int statementCacheSize) {
+        if (maximumPoolSize < 1) {
+            throw new IllegalArgumentException("The maximum pool size has to be at least 1");
+        }
+
+        this.connectionString = connectionString;
+        this.maximumPoolSize = maximumPoolSize;
+        this.idleTimeout = idleTimeout;
+        this.acquireTimeout = acquireTimeout;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maximumPoolSize, true);
+        this.evictionTask = Constants.SCHEDULED_EXECUTOR_SERVICE.scheduleAtFixedRate(
+                this::evictIdleConnections,
+                idleTimeout,
+                Math.max(1000, idleTimeout / 2),
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    private final String connectionString;
+
+    private final int maximumPoolSize;
+
+    private final long idleTimeout;
+
+    private final long acquireTimeout;
+
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+
+    private final ScheduledFuture<?> evictionTask;
+
+    private final BlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    private final AtomicInteger activeConnections = new AtomicInteger();
+
+    private final LongAdder acquisitions = new LongAdder();
+
+    private final LongAdder totalWaitTime = new LongAdder();
+
+    private final AtomicLong maximumWaitTime = new AtomicLong();
+
+    private final LongAdder statementCacheHits = new LongAdder();
+
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    private final Map<String, AtomicLong> tableGenerations = new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+
+    /**
+     * Acquires a connection from the pool, opening a new one if no idle connection is available. The
+     * connection has to get closed after the usage to return it to the pool.
+     *
+     * @return A connection which is exclusively owned by the caller until it gets closed
+     * @throws SQLException If the pool is closed, no connection got free within the acquire timeout
+     *                      or a new connection could not get opened
+     */
+    @NotNull
+    public PooledConnection acquire() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("The connection pool is already closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!this.permits.tryAcquire(this.acquireTimeout, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Unable to acquire a database connection within " + this.acquireTimeout + "ms");
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", ex);
+        }
+
+        long waited = System.nanoTime() - start;
+        this.acquisitions.increment();
+        this.totalWaitTime.add(waited);
+        this.maximumWaitTime.accumulateAndGet(waited, Math::max);
+
+        try {
+            PooledConnection connection;
+            while ((connection = this.idleConnections.pollFirst()) != null) {
+                if (connection.isUsable()) {
+                    break;
+                }
+
+                this.closePhysically(connection);
+            }
+
+            if (connection == null) {
+                connection = new PooledConnection(
+                        this,
+                        DriverManager.getConnection(this.connectionString),
+                        this.statementCacheSize,
+                        this.statementCacheHits,
+                        this.statementCacheMisses
+                );
+                this.openConnections.incrementAndGet();
+            }
+
+            connection.markAcquired();
+            this.activeConnections.incrementAndGet();
+            return connection;
+        } catch (final SQLException | RuntimeException ex) {
+            this.permits.release();
+            throw ex;
+        }
+    }
+
+    void release(@NotNull PooledConnection connection) {
+        this.activeConnections.decrementAndGet();
+
+        if (this.closed || !connection.resetState()) {
+            this.closePhysically(connection);
+        } else {
+            this.idleConnections.offerFirst(connection);
+        }
+
+        this.permits.release();
+    }
+
+    /**
+     * Invalidates the cached statements of the given table on all connections of the pool, for example
+     * after the table was dropped. The statements are prepared again on their next use.
+     *
+     * @param table The table of which the statements should get invalidated
+     */
+    public void invalidateCachedStatements(@NotNull String table) {
+        this.tableGenerations.computeIfAbsent(table.toLowerCase(Locale.ROOT), name -> new AtomicLong()).incrementAndGet();
+    }
+
+    long getTableGeneration(@NotNull String lowerCaseTable) {
+        AtomicLong generation = this.tableGenerations.get(lowerCaseTable);
+        return generation == null ? 0 : generation.get();
+    }
+
+    private void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> iterator = this.idleConnections.descendingIterator();
+
+        while (iterator.hasNext() && this.openConnections.get() > 1) {
+            PooledConnection connection = iterator.next();
+            if (connection.getLastUsed() + this.idleTimeout < now && this.idleConnections.remove(connection)) {
+                this.closePhysically(connection);
+            }
+        }
+    }
+
+    private void closePhysically(@NotNull PooledConnection connection) {
+        this.openConnections.decrementAndGet();
+        connection.closePhysically();
+    }
+
+    /**
+     * @return The maximum amount of connections the pool opens at the same time
+     */
+    public int getMaximumPoolSize() {
+        return this.maximumPoolSize;
+    }
+
+    /**
+     * @return The amount of connections which are currently used by any thread
+     */
+    public int getActiveConnections() {
+        return this.activeConnections.get();
+    }
+
+    /**
+     * @return The amount of connections which are open but unused
+     */
+    public int getIdleConnections() {
+        return this.idleConnections.size();
+    }
+
+    /**
+     * @return The amount of threads which are currently waiting for a free connection
+     */
+    public int getWaitingThreads() {
+        return this.permits.getQueueLength();
+    }
+
+    /**
+     * @return The total amount of successful connection acquisitions
+     */
+    public long getAcquisitions() {
+        return this.acquisitions.sum();
+    }
+
+    /**
+     * @param timeUnit The time unit in which the wait time should get returned
+     * @return The average time a thread had to wait for a free connection
+     */
+    public long getAverageWaitTime(@NotNull TimeUnit timeUnit) {
+        long acquisitions = this.acquisitions.sum();
+        return acquisitions == 0 ? 0 : timeUnit.convert(this.totalWaitTime.sum() / acquisitions, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param timeUnit The time unit in which the wait time should get returned
+     * @return The longest time a thread had to wait for a free connection
+     */
+    public long getMaximumWaitTime(@NotNull TimeUnit timeUnit) {
+        return timeUnit.convert(this.maximumWaitTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return The amount of statements which were taken from the statement caches of the connections
+     */
+    public long getStatementCacheHits() {
+        return this.statementCacheHits.sum();
+    }
+
+    /**
+     * @return The amount of statements which had to get prepared because they were not cached
+     */
+    public long getStatementCacheMisses() {
+        return this.statementCacheMisses.sum();
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        this.evictionTask.cancel(false);
+
+        PooledConnection connection;
+        while ((connection = this.idleConnections.pollFirst()) != null) {
+            this.closePhysically(connection);
+        }
+    }
+}
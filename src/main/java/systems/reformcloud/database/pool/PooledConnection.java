@@ -0,0 +1,159 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.pool;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Represents a connection which is borrowed from a {@link ConnectionPool}. Closing the connection
+ * returns it to the pool instead of closing the underlying jdbc connection.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class PooledConnection implements AutoCloseable {
+
+    PooledConnection(@NotNull ConnectionPool pool, @NotNull Connection connection, int statementCacheSize,
+                     @NotNull LongAdder cacheHits, @NotNull LongAdder cacheMisses) {
+        this.pool = pool;
+        this.connection = connection;
+        this.statementCache = new StatementCache(pool, connection, statementCacheSize, cacheHits, cacheMisses);
+        this.lastUsed = System.currentTimeMillis();
+    }
+
+    private final ConnectionPool pool;
+
+    private final Connection connection;
+
+    private final StatementCache statementCache;
+
+    private volatile long lastUsed;
+
+    private boolean borrowed;
+
+    /**
+     * Creates a new prepared statement on the underlying connection
+     *
+     * @param sql The sql query of the statement
+     * @return The prepared statement which has to get closed by the caller
+     * @throws SQLException If the statement could not get prepared
+     */
+    @NotNull
+    public PreparedStatement prepareStatement(@NotNull String sql) throws SQLException {
+        return this.connection.prepareStatement(sql);
+    }
+
+    /**
+     * Gets a prepared statement for the given table and operation from the statement cache of this
+     * connection or prepares a new one if it is not cached yet. The returned statement stays open and
+     * must not get closed by the caller, all parameters have to get set before every execution.
+     *
+     * @param table     The table on which the statement operates
+     * @param operation The name of the operation the statement runs
+     * @param sql       The supplier of the sql query, only called if the statement is not cached
+     * @return The cached prepared statement
+     * @throws SQLException If the statement could not get prepared
+     */
+    @NotNull
+    public PreparedStatement prepareCachedStatement(@NotNull String table, @NotNull String operation,
+                                                    @NotNull Supplier<String> sql) throws SQLException {
+        return this.statementCache.get(table, operation, sql);
+    }
+
+    /**
+     * Closes and removes all cached statements of the given table, for example after the table was dropped.
+     * The cached statements of the table on the other connections of the pool get prepared again on their
+     * next use.
+     *
+     * @param table The table of which the statements should get removed
+     */
+    public void invalidateCachedStatements(@NotNull String table) {
+        this.pool.invalidateCachedStatements(table);
+        this.statementCache.invalidate(table);
+    }
+
+    /**
+     * @return The underlying jdbc connection which must not get closed directly
+     */
+    @NotNull
+    public Connection getConnection() {
+        return this.connection;
+    }
+
+    @Override
+    public void close() {
+        if (this.borrowed) {
+            this.borrowed = false;
+            this.lastUsed = System.currentTimeMillis();
+            this.pool.release(this);
+        }
+    }
+
+    void markAcquired() {
+        this.borrowed = true;
+    }
+
+    long getLastUsed() {
+        return this.lastUsed;
+    }
+
+    boolean isUsable() {
+        try {
+            return !this.connection.isClosed();
+        } catch (final SQLException ex) {
+            return false;
+        }
+    }
+
+    boolean resetState() {
+        try {
+            if (!this.connection.getAutoCommit()) {
+                this.connection.rollback();
+                this.connection.setAutoCommit(true);
+            }
+
+            return true;
+        } catch (final SQLException ex) {
+            ex.printStackTrace();
+        }
+
+        return false;
+    }
+
+    void closePhysically() {
+        this.statementCache.close();
+
+        try {
+            this.connection.close();
+        } catch (final SQLException ex) {
+            ex.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.pool;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A least recently used cache of prepared statements of a single connection. The statements are
+ * keyed by the table and the operation they run, so the sql of a statement is only parsed once
+ * per connection. Every statement remembers the generation of its table in the pool, statements of
+ * tables which were invalidated through any connection of the pool get prepared again. The cache is
+ * not thread safe because a connection is owned by one thread at a time.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+final class StatementCache {
+
+    StatementCache(@NotNull ConnectionPool pool, @NotNull Connection connection, int maximumSize,
+                   @NotNull LongAdder hits, @NotNull LongAdder misses) {
+        this.pool = pool;
+        this.connection = connection;
+        this.hits = hits;
+        this.misses = misses;
+        this.statements = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StatementKey, CachedStatement> eldest) {
+                if (this.size() > maximumSize) {
+                    closeQuietly(eldest.getValue().statement);
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    private final ConnectionPool pool;
+
+    private final Connection connection;
+
+    private final LongAdder hits;
+
+    private final LongAdder misses;
+
+    private final Map<StatementKey, CachedStatement> statements;
+
+    @NotNull
+    PreparedStatement get(@NotNull String table, @NotNull String operation, @NotNull Supplier<String> sql) throws SQLException {
+        String lowerCaseTable = table.toLowerCase(Locale.ROOT);
+        StatementKey key = new StatementKey(lowerCaseTable, operation);
+        long generation = this.pool.getTableGeneration(lowerCaseTable);
+
+        CachedStatement cached = this.statements.get(key);
+        if (cached != null) {
+            // the table was dropped or rebuilt through another connection since the statement got prepared
+            if (cached.generation == generation && !cached.statement.isClosed()) {
+                this.hits.increment();
+                return cached.statement;
+            }
+
+            closeQuietly(cached.statement);
+        }
+
+        this.misses.increment();
+        PreparedStatement statement = this.connection.prepareStatement(sql.get());
+        this.statements.put(key, new CachedStatement(statement, generation));
+        return statement;
+    }
+
+    void invalidate(@NotNull String table) {
+        String lowerCaseTable = table.toLowerCase(Locale.ROOT);
+        this.statements.entrySet().removeIf(entry -> {
+            if (entry.getKey().table.equals(lowerCaseTable)) {
+                closeQuietly(entry.getValue().statement);
+                return true;
+            }
+
+            return false;
+        });
+    }
+
+    void close() {
+        this.statements.values().forEach(cached -> closeQuietly(cached.statement));
+        this.statements.clear();
+    }
+
+    private static void closeQuietly(@NotNull PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (final SQLException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private static final class CachedStatement {
+
+        private CachedStatement(PreparedStatement statement, long generation) {
+            this.statement = statement;
+            this.generation = generation;
+        }
+
+        private final PreparedStatement statement;
+
+        private final long generation;
+    }
+
+    private static final class StatementKey {
+
+        private StatementKey(String table, String operation) {
+            this.table = table;
+            this.operation = operation;
+        }
+
+        private final String table;
+
+        private final String operation;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof StatementKey)) {
+                return false;
+            }
+
+            var that = (StatementKey) o;
+            return that.table.equals(this.table) && that.operation.equals(this.operation);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.table, this.operation);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.retention;
+
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.api.GlobalAPI;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Deletes all objects of a table which are older than the retention time of the table. Only the indexed
+ * creation time of the objects is used, so the objects never get loaded or decoded for the cleanup.
+ * Objects written before the creation time was stored get their creation time set on the first run.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ * @see systems.reformcloud.database.object.TimedDatabaseObject
+ */
+public class RetentionTask implements Runnable {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    public RetentionTask(@NotNull String table, long retentionTime, @NotNull TimeUnit timeUnit,
+                         @NotNull ToLongFunction<byte[]> creationTimeReader) {
+        this(table, retentionTime, timeUnit, creationTimeReader, DEFAULT_CHUNK_SIZE);
+    }
+
+    public RetentionTask(@NotNull String table, long retentionTime, @NotNull TimeUnit timeUnit,
+                         @NotNull ToLongFunction<byte[]> creationTimeReader, int chunkSize) {
+        this.table = table;
+        this.retentionMillis = timeUnit.toMillis(retentionTime);
+        this.creationTimeReader = creationTimeReader;
+        this.chunkSize = chunkSize;
+    }
+
+    private final String table;
+
+    private final long retentionMillis;
+
+    private final ToLongFunction<byte[]> creationTimeReader;
+
+    private final int chunkSize;
+
+    private boolean creationTimesUpdated;
+
+    @Override
+    public void run() {
+        try {
+            if (!this.creationTimesUpdated) {
+                long updated = GlobalAPI.getDatabaseDriver().updateMissingCreationTimes(this.table, this.creationTimeReader, this.chunkSize);
+                if (updated > 0) {
+                    System.out.println("Set the creation time of " + updated + " old entries in table " + this.table);
+                }
+
+                this.creationTimesUpdated = true;
+            }
+
+            long start = System.currentTimeMillis();
+            long purged = GlobalAPI.getDatabaseDriver().deleteCreatedBefore(this.table, start - this.retentionMillis, this.chunkSize);
+            System.out.println("Purged " + purged + " expired entries from table " + this.table
+                    + " in " + (System.currentTimeMillis() - start) + "ms");
+        } catch (final Throwable throwable) {
+            throwable.printStackTrace();
+        }
+    }
+}
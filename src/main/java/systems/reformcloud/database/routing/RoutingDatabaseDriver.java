@@ -0,0 +1,244 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.routing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import systems.reformcloud.database.DatabaseDriver;
+import systems.reformcloud.database.config.DatabaseConfig;
+import systems.reformcloud.database.object.DatabaseObject;
+import systems.reformcloud.database.object.DatabaseObjectToken;
+import systems.reformcloud.database.scan.ScanOptions;
+import systems.reformcloud.database.transaction.TransactionOperation;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * A database driver which delegates every table to one of multiple drivers. Tables starting with a registered
+ * prefix are handled by the driver of the prefix, all other tables by the default driver.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public class RoutingDatabaseDriver implements DatabaseDriver {
+
+    public RoutingDatabaseDriver(@NotNull DatabaseDriver defaultDriver) {
+        this.defaultDriver = defaultDriver;
+    }
+
+    private final DatabaseDriver defaultDriver;
+
+    private final Map<String, DatabaseDriver> routes = new LinkedHashMap<>();
+
+    /**
+     * Routes all tables starting with the given prefix to the driver. Routes have to be registered
+     * before the driver connects.
+     *
+     * @param tablePrefix The prefix of the tables which should get handled by the driver
+     * @param driver      The driver which handles the tables
+     * @return The same instance as used to call the method
+     */
+    @NotNull
+    public RoutingDatabaseDriver route(@NotNull String tablePrefix, @NotNull DatabaseDriver driver) {
+        this.routes.put(tablePrefix.toLowerCase(Locale.ROOT), driver);
+        return this;
+    }
+
+    @NotNull
+    private DatabaseDriver driver(@NotNull String table) {
+        String normalized = table.toLowerCase(Locale.ROOT);
+        for (Map.Entry<String, DatabaseDriver> route : this.routes.entrySet()) {
+            if (normalized.startsWith(route.getKey())) {
+                return route.getValue();
+            }
+        }
+
+        return this.defaultDriver;
+    }
+
+    @NotNull
+    private Collection<DatabaseDriver> drivers() {
+        Collection<DatabaseDriver> drivers = new LinkedHashSet<>();
+        drivers.add(this.defaultDriver);
+        drivers.addAll(this.routes.values());
+        return drivers;
+    }
+
+    @Override
+    public boolean connect(@NotNull DatabaseConfig config) {
+        boolean connected = true;
+        for (DatabaseDriver driver : this.drivers()) {
+            connected &= driver.connect(config);
+        }
+
+        return connected;
+    }
+
+    @Override
+    public boolean createTable(@NotNull String table) {
+        return this.driver(table).createTable(table);
+    }
+
+    @Override
+    public void deleteTable(@NotNull String table) {
+        this.driver(table).deleteTable(table);
+    }
+
+    @NotNull
+    @Override
+    public Collection<String> getTables() {
+        Collection<String> tables = new ArrayList<>();
+        for (DatabaseDriver driver : this.drivers()) {
+            for (String table : driver.getTables()) {
+                if (this.driver(table) == driver) {
+                    tables.add(table);
+                }
+            }
+        }
+
+        return tables;
+    }
+
+    @Override
+    public void insert(@NotNull DatabaseObject object) {
+        this.driver(object.getTable()).insert(object);
+    }
+
+    @Override
+    public void update(@NotNull DatabaseObject object) {
+        this.driver(object.getTable()).update(object);
+    }
+
+    @Override
+    public void upsert(@NotNull DatabaseObject object) {
+        this.driver(object.getTable()).upsert(object);
+    }
+
+    @Override
+    public boolean upsertAll(@NotNull Collection<? extends DatabaseObject> objects) {
+        Map<DatabaseDriver, Collection<DatabaseObject>> byDriver = new LinkedHashMap<>();
+        for (DatabaseObject object : objects) {
+            byDriver.computeIfAbsent(this.driver(object.getTable()), driver -> new ArrayList<>()).add(object);
+        }
+
+        boolean written = true;
+        for (Map.Entry<DatabaseDriver, Collection<DatabaseObject>> entry : byDriver.entrySet()) {
+            written &= entry.getKey().upsertAll(entry.getValue());
+        }
+
+        return written;
+    }
+
+    @Override
+    public boolean commit(@NotNull List<TransactionOperation> operations) {
+        Map<DatabaseDriver, List<TransactionOperation>> byDriver = new LinkedHashMap<>();
+        for (TransactionOperation operation : operations) {
+            byDriver.computeIfAbsent(this.driver(operation.getTable()), driver -> new ArrayList<>()).add(operation);
+        }
+
+        boolean committed = true;
+        for (Map.Entry<DatabaseDriver, List<TransactionOperation>> entry : byDriver.entrySet()) {
+            committed &= entry.getKey().commit(entry.getValue());
+        }
+
+        return committed;
+    }
+
+    @Override
+    @Nullable
+    public <T> T getOrDefault(@NotNull DatabaseObjectToken<T> databaseObjectToken, @Nullable T def) {
+        return this.driver(databaseObjectToken.getTable()).getOrDefault(databaseObjectToken, def);
+    }
+
+    @NotNull
+    @Override
+    public Map<String, byte[]> getMany(@NotNull String table, @NotNull Collection<String> keys) {
+        return this.driver(table).getMany(table, keys);
+    }
+
+    @Override
+    public long insertMissing(@NotNull Collection<? extends DatabaseObject> objects) {
+        Map<DatabaseDriver, Collection<DatabaseObject>> byDriver = new LinkedHashMap<>();
+        for (DatabaseObject object : objects) {
+            byDriver.computeIfAbsent(this.driver(object.getTable()), driver -> new ArrayList<>()).add(object);
+        }
+
+        long inserted = 0;
+        for (Map.Entry<DatabaseDriver, Collection<DatabaseObject>> entry : byDriver.entrySet()) {
+            inserted += entry.getKey().insertMissing(entry.getValue());
+        }
+
+        return inserted;
+    }
+
+    @NotNull
+    @Override
+    public <T> Stream<T> scan(@NotNull String table, @NotNull ScanOptions options, @NotNull Function<byte[], T> mapper) {
+        return this.driver(table).scan(table, options, mapper);
+    }
+
+    @NotNull
+    @Override
+    public Stream<String> keys(@NotNull String table, @NotNull ScanOptions options) {
+        return this.driver(table).keys(table, options);
+    }
+
+    @Override
+    public void deleteFromTable(@NotNull String table, @NotNull String key) {
+        this.driver(table).deleteFromTable(table, key);
+    }
+
+    @Override
+    public long deleteCreatedBefore(@NotNull String table, long creationTime, int chunkSize) {
+        return this.driver(table).deleteCreatedBefore(table, creationTime, chunkSize);
+    }
+
+    @Override
+    public long updateMissingCreationTimes(@NotNull String table, @NotNull ToLongFunction<byte[]> creationTimeReader, int chunkSize) {
+        return this.driver(table).updateMissingCreationTimes(table, creationTimeReader, chunkSize);
+    }
+
+    @NotNull
+    @Override
+    public Map<String, String> getStatistics() {
+        Map<String, String> statistics = new LinkedHashMap<>(this.defaultDriver.getStatistics());
+        for (Map.Entry<String, DatabaseDriver> route : this.routes.entrySet()) {
+            for (Map.Entry<String, String> statistic : route.getValue().getStatistics().entrySet()) {
+                statistics.put(route.getKey() + "* " + statistic.getKey(), statistic.getValue());
+            }
+        }
+
+        return statistics;
+    }
+
+    @Override
+    public void close() {
+        for (DatabaseDriver driver : this.drivers()) {
+            driver.close();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.scan;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Describes which rows of a table should get read by a scan. All rows are read in the ascending order of
+ * their keys. An instance is immutable, every modification returns a new instance.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class ScanOptions {
+
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private static final ScanOptions ALL = new ScanOptions(null, null, -1, DEFAULT_FETCH_SIZE);
+
+    /**
+     * @return The options to scan all rows of a table
+     */
+    @NotNull
+    public static ScanOptions all() {
+        return ALL;
+    }
+
+    private ScanOptions(@Nullable String fromKey, @Nullable String toKey, long limit, int fetchSize) {
+        this.fromKey = fromKey;
+        this.toKey = toKey;
+        this.limit = limit;
+        this.fetchSize = fetchSize;
+    }
+
+    private final String fromKey;
+
+    private final String toKey;
+
+    private final long limit;
+
+    private final int fetchSize;
+
+    /**
+     * @param fromKey The first key which should get read (inclusive)
+     * @return A copy of these options which starts at the given key
+     */
+    @NotNull
+    public ScanOptions from(@NotNull String fromKey) {
+        return new ScanOptions(fromKey, this.toKey, this.limit, this.fetchSize);
+    }
+
+    /**
+     * @param toKey The key at which the scan should stop (exclusive)
+     * @return A copy of these options which stops at the given key
+     */
+    @NotNull
+    public ScanOptions to(@NotNull String toKey) {
+        return new ScanOptions(this.fromKey, toKey, this.limit, this.fetchSize);
+    }
+
+    /**
+     * @param limit The maximum amount of rows which should get read
+     * @return A copy of these options which reads at most the given amount of rows
+     */
+    @NotNull
+    public ScanOptions limit(long limit) {
+        Preconditions.checkArgument(limit >= 0, "Limit must not be negative");
+        return new ScanOptions(this.fromKey, this.toKey, limit, this.fetchSize);
+    }
+
+    /**
+     * @param fetchSize The amount of rows which should get loaded from the database at once
+     * @return A copy of these options which uses the given fetch size
+     */
+    @NotNull
+    public ScanOptions fetchSize(int fetchSize) {
+        Preconditions.checkArgument(fetchSize > 0, "Fetch size must be positive");
+        return new ScanOptions(this.fromKey, this.toKey, this.limit, fetchSize);
+    }
+
+    /**
+     * @return The first key which should get read or {@code null} if the scan starts at the first row
+     */
+    @Nullable
+    public String getFromKey() {
+        return fromKey;
+    }
+
+    /**
+     * @return The key at which the scan stops or {@code null} if the scan reads until the last row
+     */
+    @Nullable
+    public String getToKey() {
+        return toKey;
+    }
+
+    /**
+     * @return The maximum amount of rows which should get read or {@code -1} if there is no limit
+     */
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return The amount of rows which should get loaded from the database at once
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Checks if the given key is in the range of these options
+     *
+     * @param key The key to check
+     * @return If the key should get read by a scan with these options
+     */
+    public boolean isInRange(@NotNull String key) {
+        return (this.fromKey == null || key.compareTo(this.fromKey) >= 0) && (this.toKey == null || key.compareTo(this.toKey) < 0);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.scan;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * One page of the rows read by a paged scan. A page contains at most as many rows as the fetch size of
+ * the options it was read with, the next page is read with the options returned by {@link #getNext()}.
+ *
+ * @param <T> The type of the rows of the page
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class ScanPage<T> {
+
+    public ScanPage(@NotNull List<T> rows, @Nullable ScanOptions next) {
+        this.rows = rows;
+        this.next = next;
+    }
+
+    private final List<T> rows;
+
+    private final ScanOptions next;
+
+    /**
+     * @return The rows of this page in the ascending order of their keys
+     */
+    @NotNull
+    public List<T> getRows() {
+        return rows;
+    }
+
+    /**
+     * @return The options to read the page after this one or {@code null} if this is the last page
+     */
+    @Nullable
+    public ScanOptions getNext() {
+        return next;
+    }
+
+    /**
+     * @return If there is a page after this one
+     */
+    public boolean hasNext() {
+        return this.next != null;
+    }
+}
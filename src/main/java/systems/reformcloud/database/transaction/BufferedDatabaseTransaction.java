@@ -0,0 +1,85 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.transaction;
+
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.database.object.DatabaseObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A transaction which records all writes in order until they get committed by the driver
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class BufferedDatabaseTransaction implements DatabaseTransaction {
+
+    private final List<TransactionOperation> operations = new ArrayList<>();
+
+    private final List<Runnable> commitCallbacks = new ArrayList<>();
+
+    @Override
+    public void insert(@NotNull DatabaseObject object) {
+        this.operations.add(new TransactionOperation(TransactionOperation.Type.INSERT, object.getTable(), object.getKey(), object));
+    }
+
+    @Override
+    public void update(@NotNull DatabaseObject object) {
+        this.operations.add(new TransactionOperation(TransactionOperation.Type.UPDATE, object.getTable(), object.getKey(), object));
+    }
+
+    @Override
+    public void upsert(@NotNull DatabaseObject object) {
+        this.operations.add(new TransactionOperation(TransactionOperation.Type.UPSERT, object.getTable(), object.getKey(), object));
+    }
+
+    @Override
+    public void deleteFromTable(@NotNull String table, @NotNull String key) {
+        this.operations.add(new TransactionOperation(TransactionOperation.Type.DELETE, table, key, null));
+    }
+
+    @Override
+    public void onCommit(@NotNull Runnable callback) {
+        this.commitCallbacks.add(callback);
+    }
+
+    /**
+     * @return All recorded writes in the order they were made
+     */
+    @NotNull
+    public List<TransactionOperation> getOperations() {
+        return Collections.unmodifiableList(this.operations);
+    }
+
+    /**
+     * @return All actions which should run after the commit
+     */
+    @NotNull
+    public List<Runnable> getCommitCallbacks() {
+        return Collections.unmodifiableList(this.commitCallbacks);
+    }
+}
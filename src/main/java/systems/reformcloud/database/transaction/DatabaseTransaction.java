@@ -0,0 +1,83 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.transaction;
+
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.database.object.DatabaseObject;
+
+/**
+ * Represents a unit of work against the database. All writes of the transaction are applied together
+ * when the unit of work completed, drivers which support it apply them in one atomic commit.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ * @see systems.reformcloud.database.DatabaseDriver#transaction(java.util.function.Consumer)
+ */
+public interface DatabaseTransaction {
+
+    /**
+     * Inserts a database object into the database
+     *
+     * @param object The object which should get inserted
+     */
+    void insert(@NotNull DatabaseObject object);
+
+    /**
+     * Updates an object in the database
+     *
+     * @param object The object which should get updated
+     */
+    void update(@NotNull DatabaseObject object);
+
+    /**
+     * Inserts the object into the database or replaces the existing object with the same key
+     *
+     * @param object The object which should get inserted or updated
+     */
+    void upsert(@NotNull DatabaseObject object);
+
+    /**
+     * Deletes an object from the database
+     *
+     * @param table The table name from which the object should get deleted
+     * @param key   The key of the database which should get deleted
+     */
+    void deleteFromTable(@NotNull String table, @NotNull String key);
+
+    /**
+     * Deletes the specified database object from the database
+     *
+     * @param databaseObject The object which should get deleted
+     */
+    default void deleteFromTable(@NotNull DatabaseObject databaseObject) {
+        this.deleteFromTable(databaseObject.getTable(), databaseObject.getKey());
+    }
+
+    /**
+     * Registers an action which runs after all writes of the transaction were committed successfully
+     *
+     * @param callback The action which should run after the commit
+     */
+    void onCommit(@NotNull Runnable callback);
+}
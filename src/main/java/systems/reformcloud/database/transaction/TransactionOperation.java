@@ -0,0 +1,120 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.transaction;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import systems.reformcloud.database.DatabaseDriver;
+import systems.reformcloud.database.object.DatabaseObject;
+
+/**
+ * Represents a single write of a transaction
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class TransactionOperation {
+
+    TransactionOperation(@NotNull Type type, @NotNull String table, @NotNull String key, @Nullable DatabaseObject object) {
+        this.type = type;
+        this.table = table;
+        this.key = key;
+        this.object = object;
+    }
+
+    private final Type type;
+
+    private final String table;
+
+    private final String key;
+
+    private final DatabaseObject object;
+
+    /**
+     * @return The type of the write
+     */
+    @NotNull
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * @return The table the write targets
+     */
+    @NotNull
+    public String getTable() {
+        return this.table;
+    }
+
+    /**
+     * @return The key of the row the write targets
+     */
+    @NotNull
+    public String getKey() {
+        return this.key;
+    }
+
+    /**
+     * @return The object which gets written or {@code null} if the operation is a delete
+     */
+    @Nullable
+    public DatabaseObject getObject() {
+        return this.object;
+    }
+
+    /**
+     * Applies the write as a single operation to the given driver
+     *
+     * @param driver The driver to which the write should get applied
+     */
+    public void applyTo(@NotNull DatabaseDriver driver) {
+        switch (this.type) {
+            case INSERT:
+                driver.insert(this.object);
+                break;
+            case UPDATE:
+                driver.update(this.object);
+                break;
+            case UPSERT:
+                driver.upsert(this.object);
+                break;
+            case DELETE:
+                driver.deleteFromTable(this.table, this.key);
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation type " + this.type);
+        }
+    }
+
+    public enum Type {
+
+        INSERT,
+
+        UPDATE,
+
+        UPSERT,
+
+        DELETE
+    }
+}
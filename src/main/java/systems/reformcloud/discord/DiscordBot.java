@@ -25,11 +25,13 @@ package systems.reformcloud.discord;
 
 import com.google.common.base.Preconditions;
 import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.ISnowflake;
 import org.jetbrains.annotations.NotNull;
 import systems.reformcloud.api.GlobalAPI;
 import systems.reformcloud.bot.Bot;
 import systems.reformcloud.bot.BotConnectionHandler;
 import systems.reformcloud.bot.feature.BotFeature;
+import systems.reformcloud.config.ConfigUtil;
 import systems.reformcloud.discord.command.commands.*;
 import systems.reformcloud.discord.features.CommandHandlerFeature;
 import systems.reformcloud.discord.features.antibot.AntiSelfBotFeature;
@@ -38,13 +40,14 @@ import systems.reformcloud.discord.listener.DiscordUserJoinListener;
 import systems.reformcloud.discord.listener.DiscordWarnCreateListener;
 import systems.reformcloud.discord.punishments.listener.PunishmentCreateListener;
 import systems.reformcloud.discord.punishments.listener.PunishmentRevokeListener;
+import systems.reformcloud.discord.roles.RoleReconciler;
 import systems.reformcloud.discord.user.DiscordUserManagement;
 import systems.reformcloud.user.UserManagement;
-import systems.reformcloud.user.punish.DefaultPunishmentTypes;
 
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * A basic implementation of a {@link Bot} for the discord env.
@@ -58,31 +61,22 @@ public class DiscordBot implements Bot<JDA> {
 
     private UserManagement userManagement;
 
+    private RoleReconciler roleReconciler;
+
+    private final Collection<BotFeature<JDA>> features = new CopyOnWriteArrayList<>();
+
     @Override
     public void doConnect(@NotNull BotConnectionHandler<JDA> connectionHandler) {
         this.jda = Preconditions.checkNotNull(connectionHandler.connect(), "Unable to connect to discord web host");
         this.userManagement = new DiscordUserManagement();
 
         DiscordUtil.init(this.jda);
-        DiscordUtil.getGuild().retrieveMembers().join();
-        DiscordUtil.getGuild().getMembers().forEach(e -> {
-            var user = this.userManagement.getUserOrCreate(e.getIdLong());
-            if (e.getRoles().size() == 0) {
-                user.getPunishments()
-                        .stream()
-                        .filter(p -> p.getPunishmentType().equals(DefaultPunishmentTypes.BAN.name()))
-                        .findAny()
-                        .ifPresentOrElse(p -> DiscordUtil.getGuild().ban(e, 0, p.getReason()).queue(), () -> {
-                            if (user.getPunishments().size() > 0 && user.getPunishments()
-                                    .stream()
-                                    .anyMatch(p -> p.getPunishmentType().equals(DefaultPunishmentTypes.MUTE.name()))) {
-                                DiscordUtil.getGuild().addRoleToMember(e, DiscordUtil.getPunishedRole()).queue();
-                            }
-
-                            DiscordUtil.getGuild().addRoleToMember(e, DiscordUtil.getMemberRole()).queue();
-                        });
-            }
-        });
+        this.roleReconciler = new RoleReconciler(
+                DiscordUtil.getGuild(),
+                DiscordUtil.getMemberRole(),
+                DiscordUtil.getPunishedRole(),
+                Boolean.parseBoolean(ConfigUtil.parseProperties().getProperty("discord-reconcile-all-members", "false"))
+        );
 
         this.init(Arrays.asList(
                 new CommandHandlerFeature(),
@@ -112,6 +106,26 @@ public class DiscordBot implements Bot<JDA> {
         GlobalAPI.getCommandMap().registerCommand(new DramaCommand(this));
     }
 
+    /**
+     * Loads all members of the guild and reconciles their roles with their stored punishments, by default
+     * only members without any role are reconciled
+     *
+     * @throws IllegalStateException If the bot is not initialized yet or already stopped
+     */
+    public void syncMembers() {
+        if (this.jda == null) {
+            throw new IllegalStateException("JDA is not initialized yet");
+        }
+
+        DiscordUtil.getGuild().retrieveMembers().join();
+
+        var users = this.userManagement.getOrCreateAll(DiscordUtil.getGuild().getMembers()
+                .stream()
+                .mapToLong(ISnowflake::getIdLong)
+                .toArray());
+        this.roleReconciler.reconcile(DiscordUtil.getGuild().getMembers(), users::get).join();
+    }
+
     @Override
     public void init(@NotNull Collection<BotFeature<JDA>> botFeatures) {
         if (this.jda == null) {
@@ -121,7 +135,10 @@ public class DiscordBot implements Bot<JDA> {
         botFeatures
                 .stream()
                 .filter(e -> e.isApplicableTo(this))
-                .forEach(e -> e.handleStart(this));
+                .forEach(e -> {
+                    e.handleStart(this);
+                    this.features.add(e);
+                });
     }
 
     @Override
@@ -137,11 +154,19 @@ public class DiscordBot implements Bot<JDA> {
 
     @Override
     public void shutdownNow() {
+        this.features.forEach(BotFeature::handleStop);
+        this.features.clear();
+
         if (this.jda != null) {
             this.jda.shutdownNow();
             this.jda = null;
         }
 
+        if (this.roleReconciler != null) {
+            this.roleReconciler.close();
+            this.roleReconciler = null;
+        }
+
         if (this.userManagement != null) {
             this.userManagement.flushAndClose();
             this.userManagement = null;
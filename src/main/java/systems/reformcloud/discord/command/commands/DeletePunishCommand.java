@@ -26,6 +26,7 @@ package systems.reformcloud.discord.command.commands;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.Permission;
 import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.api.GlobalAPI;
 import systems.reformcloud.bot.Bot;
 import systems.reformcloud.commands.source.CommandSource;
 import systems.reformcloud.discord.command.BasicDiscordCommand;
@@ -72,13 +73,29 @@ public final class DeletePunishCommand extends BasicDiscordCommand {
             return;
         }
 
-        if (user.getPunishmentByUniqueID(punishUniqueID) == null) {
-            source.sendMessage("The provided punish does not exists");
-            return;
+        boolean committed;
+        synchronized (user) {
+            var punishment = user.getPunishmentByUniqueID(punishUniqueID);
+            if (punishment == null) {
+                source.sendMessage("The provided punish does not exists");
+                return;
+            }
+
+            committed = GlobalAPI.getDatabaseDriver().transaction(transaction -> {
+                user.removePunishmentByUniqueId(punishUniqueID, transaction);
+                this.parent.getAssociatedUserManagement().updateUser(user, transaction);
+            });
+
+            // the punishment is removed before the commit, so it gets restored if the commit fails
+            if (!committed) {
+                user.getPunishments().add(punishment);
+            }
         }
 
-        user.removePunishmentByUniqueId(punishUniqueID);
-        this.parent.getAssociatedUserManagement().updateUser(user);
+        if (!committed) {
+            source.sendMessage("Unable to remove punishment " + punishUniqueID + ", please try again later");
+            return;
+        }
 
         source.sendMessage(String.format("Successfully removed punishment %s", punishUniqueID.toString()));
     }
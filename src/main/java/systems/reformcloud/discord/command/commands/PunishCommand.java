@@ -29,15 +29,20 @@ import com.google.common.cache.CacheBuilder;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.Permission;
 import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.api.GlobalAPI;
 import systems.reformcloud.bot.Bot;
 import systems.reformcloud.commands.source.CommandSource;
 import systems.reformcloud.discord.command.BasicDiscordCommand;
 import systems.reformcloud.discord.command.util.CommandArgumentParser;
 import systems.reformcloud.discord.punishments.DiscordPunishment;
 import systems.reformcloud.user.punish.DefaultPunishmentTypes;
+import systems.reformcloud.user.punish.Punishment;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Command to punish users
@@ -107,34 +112,55 @@ public final class PunishCommand extends BasicDiscordCommand {
             return;
         }
 
-        if (timeout != -1) {
-            timeout = System.currentTimeMillis() + unit.toMillis(timeout);
-        }
+        long timeoutTime = timeout == -1 ? -1 : System.currentTimeMillis() + unit.toMillis(timeout);
 
         if (Arrays.stream(DefaultPunishmentTypes.values()).noneMatch(e -> e.name().equalsIgnoreCase(strings[3]))) {
             source.sendMessage("Invalid punishment type " + strings[3] + "!");
             return;
         }
 
-        user.getPunishments().stream().filter(e -> e.getPunishmentType().equalsIgnoreCase(strings[3])).findFirst().ifPresent(activePunishment -> {
-            user.removePunishmentByUniqueId(activePunishment.getUniqueID());
-            source.sendMessage("Overriding current punishment of type " + strings[3]);
-        });
-
         if (!source.hasPermission(Permission.ADMINISTRATOR)) {
             coolDown.put(source.getId(), 0);
         }
 
-        user.getPunishments().add(new DiscordPunishment(
-                user.getId(),
-                System.currentTimeMillis(),
-                source.getId(),
-                timeout,
-                source.getName(),
-                strings[3].toUpperCase(),
-                String.join(" ", Arrays.copyOfRange(strings, 4, strings.length))
-        ));
-        this.parent.getAssociatedUserManagement().updateUser(user);
+        var activePunishment = new AtomicReference<Punishment>();
+        boolean committed;
+        synchronized (user) {
+            // the punishments are changed before the commit, so they get restored if the commit fails
+            Collection<Punishment> punishments = new ArrayList<>(user.getPunishments());
+            committed = GlobalAPI.getDatabaseDriver().transaction(transaction -> {
+                user.getPunishments().stream().filter(e -> e.getPunishmentType().equalsIgnoreCase(strings[3])).findFirst().ifPresent(punishment -> {
+                    user.removePunishmentByUniqueId(punishment.getUniqueID(), transaction);
+                    activePunishment.set(punishment);
+                });
+
+                user.getPunishments().add(new DiscordPunishment(
+                        transaction,
+                        user.getId(),
+                        System.currentTimeMillis(),
+                        source.getId(),
+                        timeoutTime,
+                        source.getName(),
+                        strings[3].toUpperCase(),
+                        String.join(" ", Arrays.copyOfRange(strings, 4, strings.length))
+                ));
+                this.parent.getAssociatedUserManagement().updateUser(user, transaction);
+            });
+
+            if (!committed) {
+                user.getPunishments().clear();
+                user.getPunishments().addAll(punishments);
+            }
+        }
+
+        if (!committed) {
+            source.sendMessage("Unable to punish user " + strings[0] + ", please try again later");
+            return;
+        }
+
+        if (activePunishment.get() != null) {
+            source.sendMessage("Overriding current punishment of type " + strings[3]);
+        }
 
         source.sendMessage("Punished user " + strings[0] + " with reason: "
                 + String.join(" ", Arrays.copyOfRange(strings, 4, strings.length))
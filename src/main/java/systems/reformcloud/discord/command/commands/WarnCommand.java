@@ -91,10 +91,14 @@ public final class WarnCommand extends BasicDiscordCommand {
                 String.join(" ", Arrays.copyOfRange(strings, 1, strings.length))
         );
 
-        user.getWarns().add(warn);
-        this.parent.getAssociatedUserManagement().updateUser(user);
+        int warnCount;
+        synchronized (user) {
+            user.getWarns().add(warn);
+            warnCount = user.getWarns().size();
+            this.parent.getAssociatedUserManagement().updateUser(user);
+        }
 
-        GlobalAPI.getEventManager().callEvent(new DiscordUserWarnEvent(warn, parent, source, user));
+        GlobalAPI.getEventManager().callEvent(new DiscordUserWarnEvent(warn, warnCount, parent, source, user));
         source.sendMessage("Warned user " + strings[0] + "! Reason: " + String.join(" ", Arrays.copyOfRange(strings, 1, strings.length)));
     }
 }
@@ -26,7 +26,9 @@ package systems.reformcloud.discord.event;
 import net.dv8tion.jda.api.JDA;
 import systems.reformcloud.bot.Bot;
 import systems.reformcloud.commands.source.CommandSource;
+import org.jetbrains.annotations.NotNull;
 import systems.reformcloud.events.Event;
+import systems.reformcloud.events.PartitionedEvent;
 import systems.reformcloud.user.User;
 import systems.reformcloud.user.warn.Warn;
 
@@ -36,10 +38,11 @@ import systems.reformcloud.user.warn.Warn;
  * @author Pasqual Koschmieder
  * @since 1.0
  */
-public class DiscordUserWarnEvent extends Event {
+public class DiscordUserWarnEvent extends Event implements PartitionedEvent {
 
-    public DiscordUserWarnEvent(Warn warn, Bot<JDA> discordBot, CommandSource warner, User user) {
+    public DiscordUserWarnEvent(Warn warn, int warnCount, Bot<JDA> discordBot, CommandSource warner, User user) {
         this.warn = warn;
+        this.warnCount = warnCount;
         this.discordBot = discordBot;
         this.warner = warner;
         this.user = user;
@@ -47,6 +50,8 @@ public class DiscordUserWarnEvent extends Event {
 
     private final Warn warn;
 
+    private final int warnCount;
+
     private final Bot<JDA> discordBot;
 
     private final CommandSource warner;
@@ -57,6 +62,13 @@ public class DiscordUserWarnEvent extends Event {
         return warn;
     }
 
+    /**
+     * @return The amount of warns the user had directly after the warn was added
+     */
+    public int getWarnCount() {
+        return warnCount;
+    }
+
     public Bot<JDA> getDiscordBot() {
         return discordBot;
     }
@@ -68,4 +80,10 @@ public class DiscordUserWarnEvent extends Event {
     public User getUser() {
         return user;
     }
+
+    @NotNull
+    @Override
+    public Object getPartitionKey() {
+        return user.getId();
+    }
 }
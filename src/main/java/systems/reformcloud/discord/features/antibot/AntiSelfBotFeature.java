@@ -29,6 +29,7 @@ import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 import net.dv8tion.jda.api.events.message.guild.react.GuildMessageReactionAddEvent;
 import net.dv8tion.jda.api.events.message.priv.PrivateMessageReceivedEvent;
 import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.api.GlobalAPI;
 import systems.reformcloud.discord.DiscordUtil;
 import systems.reformcloud.discord.features.DiscordFeature;
 import systems.reformcloud.discord.features.logger.GuildMessage;
@@ -36,9 +37,12 @@ import systems.reformcloud.discord.features.logger.LoggerFeature;
 import systems.reformcloud.discord.listener.DiscordUserJoinListener;
 import systems.reformcloud.discord.punishments.DiscordPunishment;
 import systems.reformcloud.user.punish.DefaultPunishmentTypes;
+import systems.reformcloud.user.punish.Punishment;
 import systems.reformcloud.util.Constants;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -84,20 +88,36 @@ public class AntiSelfBotFeature extends DiscordFeature {
         }
 
         var user = this.getApi().getAssociatedUserManagement().getExistingUserById(event.getAuthor().getIdLong());
-        if (user == null || user.getPunishments().size() == 1 || this.getApi().getCurrentInstance().isEmpty()) {
+        if (user == null || this.getApi().getCurrentInstance().isEmpty()) {
             return;
         }
 
-        user.getPunishments().add(new DiscordPunishment(
-                user.getId(),
-                System.currentTimeMillis(),
-                this.getApi().getCurrentInstance().get().getSelfUser().getIdLong(),
-                System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1),
-                this.getApi().getCurrentInstance().get().getSelfUser().getName(),
-                DefaultPunishmentTypes.MUTE.name(),
-                "Auto punishment because of 20+ messages in one minute! Calm down my friend"
-        ));
-        this.getApi().getAssociatedUserManagement().updateUser(user);
+        synchronized (user) {
+            if (user.getPunishments().size() == 1) {
+                return;
+            }
+
+            Collection<Punishment> punishments = new ArrayList<>(user.getPunishments());
+            boolean committed = GlobalAPI.getDatabaseDriver().transaction(transaction -> {
+                user.getPunishments().add(new DiscordPunishment(
+                        transaction,
+                        user.getId(),
+                        System.currentTimeMillis(),
+                        this.getApi().getCurrentInstance().get().getSelfUser().getIdLong(),
+                        System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1),
+                        this.getApi().getCurrentInstance().get().getSelfUser().getName(),
+                        DefaultPunishmentTypes.MUTE.name(),
+                        "Auto punishment because of 20+ messages in one minute! Calm down my friend"
+                ));
+                this.getApi().getAssociatedUserManagement().updateUser(user, transaction);
+            });
+
+            // the punishment is added before the commit, so it gets removed again if the commit fails
+            if (!committed) {
+                user.getPunishments().removeIf(punishment -> !punishments.contains(punishment));
+                System.err.println("Unable to store the automatic punishment of user " + user.getId());
+            }
+        }
     }
 
     @Override
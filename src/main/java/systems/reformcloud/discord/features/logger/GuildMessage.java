@@ -25,17 +25,14 @@ package systems.reformcloud.discord.features.logger;
 
 import net.dv8tion.jda.api.entities.Message;
 import org.jetbrains.annotations.NotNull;
-import systems.reformcloud.database.object.DatabaseObject;
-
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.ObjectOutputStream;
+import systems.reformcloud.database.codec.CodecRegistry;
+import systems.reformcloud.database.object.TimedDatabaseObject;
 
 /**
  * @author Pasqual Koschmieder
  * @since 1.0
  */
-public class GuildMessage implements DatabaseObject {
+public class GuildMessage implements TimedDatabaseObject {
 
     @NotNull
     public static GuildMessage fromMessage(@NotNull Message message) {
@@ -43,17 +40,19 @@ public class GuildMessage implements DatabaseObject {
     }
 
     public GuildMessage(long messageId, long userId, String message) {
-        this.messageId = messageId;
-        this.userId = userId;
-        this.creationTime = System.currentTimeMillis();
-        this.message = message;
+        this(messageId, userId, System.currentTimeMillis(), message);
     }
 
     GuildMessage(long messageId, long userId, long creationTime, String message) {
+        this(messageId, userId, creationTime, message, MessageTables.tableOf(messageId));
+    }
+
+    private GuildMessage(long messageId, long userId, long creationTime, String message, String table) {
         this.messageId = messageId;
         this.userId = userId;
         this.creationTime = creationTime;
         this.message = message;
+        this.table = table;
     }
 
     private final long messageId;
@@ -64,6 +63,8 @@ public class GuildMessage implements DatabaseObject {
 
     private final String message;
 
+    private final String table;
+
     public long getMessageId() {
         return messageId;
     }
@@ -72,6 +73,7 @@ public class GuildMessage implements DatabaseObject {
         return userId;
     }
 
+    @Override
     public long getCreationTime() {
         return creationTime;
     }
@@ -90,26 +92,24 @@ public class GuildMessage implements DatabaseObject {
     @NotNull
     @Override
     public String getTable() {
-        return "discord_messages";
+        return this.table;
+    }
+
+    /**
+     * Creates a copy of this message which is stored in the given table, for example in the legacy table
+     * if the message was written before the partitioned layout was used
+     *
+     * @param table The table in which the message is stored
+     * @return A copy of this message which is stored in the given table
+     */
+    @NotNull
+    GuildMessage inTable(@NotNull String table) {
+        return table.equals(this.table) ? this : new GuildMessage(this.messageId, this.userId, this.creationTime, this.message, table);
     }
 
     @NotNull
     @Override
     public byte[] serialize() {
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-             ObjectOutputStream stream = new ObjectOutputStream(byteArrayOutputStream)) {
-            stream.writeLong(this.messageId);
-            stream.writeLong(this.userId);
-            stream.writeLong(this.creationTime);
-            stream.writeUTF(this.message);
-
-            stream.writeObject(null);
-
-            return byteArrayOutputStream.toByteArray();
-        } catch (final IOException ex) {
-            ex.printStackTrace();
-        }
-
-        return new byte[0];
+        return CodecRegistry.encode(GuildMessageCodec.TYPE, this);
     }
 }
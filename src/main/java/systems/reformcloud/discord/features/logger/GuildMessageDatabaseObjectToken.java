@@ -24,9 +24,10 @@
 package systems.reformcloud.discord.features.logger;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import systems.reformcloud.database.codec.CodecRegistry;
 import systems.reformcloud.database.object.DatabaseObjectToken;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.function.Function;
@@ -39,31 +40,33 @@ import java.util.function.Function;
  */
 public class GuildMessageDatabaseObjectToken extends DatabaseObjectToken<GuildMessage> {
 
-    static final Function<byte[], GuildMessage> MAPPER = bytes -> {
-        try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(bytes);
-             ObjectInputStream stream = new ObjectInputStream(byteArrayInputStream)) {
-            var messageID = stream.readLong();
-            var userID = stream.readLong();
-            var creationTime = stream.readLong();
-            var message = stream.readUTF();
-
-            return new GuildMessage(messageID, userID, creationTime, message);
-        } catch (final IOException ex) {
-            ex.printStackTrace();
-        }
-
-        return null;
-    };
+    static final Function<byte[], GuildMessage> MAPPER = bytes -> CodecRegistry.decode(
+            bytes,
+            GuildMessageDatabaseObjectToken::readLegacy
+    );
 
     public GuildMessageDatabaseObjectToken(long messageId) {
+        this(messageId, MessageTables.tableOf(messageId));
+    }
+
+    GuildMessageDatabaseObjectToken(long messageId, @NotNull String table) {
         this.messageId = messageId;
+        this.table = table;
     }
 
     private final long messageId;
 
+    private final String table;
+
     @NotNull
     @Override
     public GuildMessage deserialize(@NotNull ObjectInputStream stream) {
+        var message = readLegacy(stream);
+        return message == null ? new GuildMessage(0, 0, "") : message;
+    }
+
+    @Nullable
+    private static GuildMessage readLegacy(@NotNull ObjectInputStream stream) {
         try {
             var messageID = stream.readLong();
             var userID = stream.readLong();
@@ -75,13 +78,13 @@ public class GuildMessageDatabaseObjectToken extends DatabaseObjectToken<GuildMe
             ex.printStackTrace();
         }
 
-        return new GuildMessage(0, 0, "");
+        return null;
     }
 
     @NotNull
     @Override
     public String getTable() {
-        return "discord_messages";
+        return this.table;
     }
 
     @NotNull
@@ -40,6 +40,9 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import systems.reformcloud.api.GlobalAPI;
 import systems.reformcloud.bot.Bot;
+import systems.reformcloud.config.ConfigUtil;
+import systems.reformcloud.database.batch.WriteBehindQueue;
+import systems.reformcloud.database.retention.RetentionTask;
 import systems.reformcloud.discord.DiscordUtil;
 import systems.reformcloud.discord.event.DiscordUserJoinEvent;
 import systems.reformcloud.discord.features.DiscordFeature;
@@ -50,6 +53,7 @@ import javax.annotation.Nonnull;
 import java.awt.*;
 import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -68,28 +72,58 @@ public class LoggerFeature extends DiscordFeature {
             .ticker(Ticker.systemTicker())
             .build();
 
+    private static final long MESSAGE_RETENTION = TimeUnit.DAYS.toMillis(30);
+
+    private final MessageTables messageTables = new MessageTables();
+
+    private WriteBehindQueue<GuildMessage> messageWriter;
+
     @Override
     public void handleStart(@NotNull Bot<JDA> bot) {
-        GlobalAPI.getDatabaseDriver().createTable("discord_messages");
+        this.messageTables.init();
 
         bot.getCurrentInstance().ifPresent(e -> {
-            Constants.SCHEDULED_EXECUTOR_SERVICE.scheduleAtFixedRate(() -> {
-                GlobalAPI.getDatabaseDriver().getAll(
-                        "discord_messages",
-                        GuildMessageDatabaseObjectToken.MAPPER
-                )
-                        .stream()
-                        .filter(m -> (m.getCreationTime() + TimeUnit.DAYS.toMillis(30)) < System.currentTimeMillis())
-                        .forEach(message -> {
-                            GlobalAPI.getDatabaseDriver().deleteFromTable("discord_messages", Long.toString(message.getMessageId()));
-                            System.out.println("Cleaned message " + message.getMessageId() + " from database");
-                        });
-            }, 0, 12, TimeUnit.HOURS);
+            var properties = ConfigUtil.parseProperties();
+            this.messageWriter = new WriteBehindQueue<>(
+                    MessageTables.TABLE,
+                    Integer.parseInt(properties.getProperty("logger-write-queue-size", "10000")),
+                    Integer.parseInt(properties.getProperty("logger-write-batch-size", "500")),
+                    Long.parseLong(properties.getProperty("logger-write-flush-interval", "1000"))
+            );
+
+            Constants.SCHEDULED_EXECUTOR_SERVICE.scheduleAtFixedRate(new RetentionTask(
+                    MessageTables.TABLE,
+                    MESSAGE_RETENTION,
+                    TimeUnit.MILLISECONDS,
+                    bytes -> {
+                        var message = GuildMessageDatabaseObjectToken.MAPPER.apply(bytes);
+                        return message == null ? -1 : message.getCreationTime();
+                    }
+            ), 0, 12, TimeUnit.HOURS);
+
+            if (MessageTables.isPartitioned()) {
+                Constants.SCHEDULED_EXECUTOR_SERVICE.scheduleAtFixedRate(
+                        () -> this.messageTables.maintainPartitions(MESSAGE_RETENTION),
+                        0,
+                        1,
+                        TimeUnit.HOURS
+                );
+            }
 
             super.handleStart(bot);
         });
     }
 
+    @Override
+    public void handleStop() {
+        super.handleStop();
+
+        if (this.messageWriter != null) {
+            this.messageWriter.close();
+            this.messageWriter = null;
+        }
+    }
+
     @NotNull
     @Override
     public String getName() {
@@ -102,12 +136,10 @@ public class LoggerFeature extends DiscordFeature {
             return;
         }
 
-        Constants.EXECUTOR_SERVICE.execute(() -> {
-            var message = GuildMessage.fromMessage(event.getMessage());
+        var message = GuildMessage.fromMessage(event.getMessage());
 
-            messageCache.put(event.getMessageIdLong(), message);
-            GlobalAPI.getDatabaseDriver().insert(message);
-        });
+        messageCache.put(event.getMessageIdLong(), message);
+        this.write(message);
     }
 
     @Override
@@ -116,17 +148,21 @@ public class LoggerFeature extends DiscordFeature {
             return;
         }
 
-        Constants.EXECUTOR_SERVICE.execute(() -> {
-            var oldMessage = this.getMessageFromCacheOrDatabase(event);
-            var message = GuildMessage.fromMessage(event.getMessage());
-            if (oldMessage == null) {
-                this.onGuildMessageReceived(new GuildMessageReceivedEvent(event.getJDA(), event.getResponseNumber(), event.getMessage()));
+        this.getMessageFromCacheOrDatabase(event).thenAccept(oldMessage -> {
+            if (oldMessage == null && MessageTables.isExpired(event.getMessageIdLong(), MESSAGE_RETENTION)) {
+                // the message was deleted by the retention already, storing it would create its dropped partition again
                 return;
             }
 
-            messageCache.invalidate(event.getMessageIdLong());
+            // the message is updated in the table it was found in, which is the legacy table for old messages
+            var updatedMessage = GuildMessage.fromMessage(event.getMessage());
+            var message = oldMessage == null ? updatedMessage : updatedMessage.inTable(oldMessage.getTable());
+
             messageCache.put(event.getMessageIdLong(), message);
-            GlobalAPI.getDatabaseDriver().update(message);
+            this.write(message);
+            if (oldMessage == null) {
+                return;
+            }
 
             log(
                     event.getMessage().getAuthor().getName() + " updated message from "
@@ -134,15 +170,14 @@ public class LoggerFeature extends DiscordFeature {
                     new KeyValueHolder<>("Message before", oldMessage.getMessage()),
                     new KeyValueHolder<>("Message now", message.getMessage())
             );
-        });
+        }).exceptionally(LoggerFeature::handleDatabaseError);
     }
 
     @Override
     public void onGuildMessageDelete(@Nonnull GuildMessageDeleteEvent event) {
-        Constants.EXECUTOR_SERVICE.execute(() -> {
-            var message = this.getMessageFromCacheOrDatabase(event);
+        this.getMessageFromCacheOrDatabase(event).thenCompose(message -> {
             if (message == null) {
-                return;
+                return CompletableFuture.completedFuture(null);
             }
 
             event.getJDA().retrieveUserById(message.getUserId()).queue(user -> {
@@ -159,9 +194,11 @@ public class LoggerFeature extends DiscordFeature {
                 );
             });
 
+            // the write behind queue deletes the stored message together with the other queued writes
             messageCache.invalidate(message.getMessageId());
-            GlobalAPI.getDatabaseDriver().deleteFromTable(message);
-        });
+            this.messageWriter.remove(message);
+            return CompletableFuture.completedFuture(null);
+        }).exceptionally(LoggerFeature::handleDatabaseError);
     }
 
     @Override
@@ -256,14 +293,38 @@ public class LoggerFeature extends DiscordFeature {
         });
     }
 
-    @Nullable
-    private GuildMessage getMessageFromCacheOrDatabase(@NotNull GenericGuildMessageEvent event) {
+    private void write(@NotNull GuildMessage message) {
+        var messageWriter = this.messageWriter;
+        this.messageTables.whenCreated(message.getTable(), table -> {
+            // the message is written into the legacy table if its partition could not get created
+            var stored = table.equals(message.getTable()) ? message : message.inTable(table);
+            messageCache.asMap().replace(stored.getMessageId(), message, stored);
+            messageWriter.enqueue(stored);
+        });
+    }
+
+    @NotNull
+    private CompletableFuture<GuildMessage> getMessageFromCacheOrDatabase(@NotNull GenericGuildMessageEvent event) {
         var message = messageCache.getIfPresent(event.getMessageIdLong());
-        if (message == null) {
-            message = GlobalAPI.getDatabaseDriver().getOrDefault(new GuildMessageDatabaseObjectToken(event.getMessageIdLong()), null);
+        if (message != null) {
+            return CompletableFuture.completedFuture(message);
+        }
+
+        CompletableFuture<GuildMessage> future = CompletableFuture.completedFuture(null);
+        for (String table : this.messageTables.lookupTables(event.getMessageIdLong())) {
+            future = future.thenCompose(result -> result != null
+                    ? CompletableFuture.completedFuture(result)
+                    : GlobalAPI.getAsyncDatabaseDriver().get(new GuildMessageDatabaseObjectToken(event.getMessageIdLong(), table))
+                    .thenApply(stored -> stored == null ? null : stored.inTable(table)));
         }
 
-        return message;
+        return future;
+    }
+
+    @Nullable
+    private static Void handleDatabaseError(@NotNull Throwable throwable) {
+        throwable.printStackTrace();
+        return null;
     }
 
     @SafeVarargs
@@ -0,0 +1,280 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.discord.features.logger;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import systems.reformcloud.api.GlobalAPI;
+import systems.reformcloud.config.ConfigUtil;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Routes the guild messages to their tables. If the partitioned layout is enabled, every day gets its own
+ * table named after the day the message was sent on (for example {@code discord_messages_20201018}), which
+ * is read from the message snowflake. Expired messages are then removed by dropping whole tables. The
+ * plain {@code discord_messages} table is kept for messages written before the partitioned layout was used.
+ * Missing tables are created on the database threads, so the gateway threads never wait for a table creation.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+final class MessageTables {
+
+    static final String TABLE = "discord_messages";
+
+    private static final String PARTITION_PREFIX = TABLE + "_";
+
+    private static final boolean PARTITIONED = Boolean.parseBoolean(
+            ConfigUtil.parseProperties().getProperty("logger-partitioned-tables", "false")
+    );
+
+    private static final long DISCORD_EPOCH = 1420070400000L;
+
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    private final Map<String, TableCreation> knownTables = new ConcurrentHashMap<>();
+
+    /**
+     * @return If the messages are written into one table per day
+     */
+    static boolean isPartitioned() {
+        return PARTITIONED;
+    }
+
+    /**
+     * Gets the table in which the message with the given id gets written
+     *
+     * @param messageId The snowflake id of the message
+     * @return The table of the message
+     */
+    @NotNull
+    static String tableOf(long messageId) {
+        if (!PARTITIONED) {
+            return TABLE;
+        }
+
+        return PARTITION_PREFIX + PARTITION_FORMAT.format(Instant.ofEpochMilli(timeOf(messageId)));
+    }
+
+    /**
+     * Checks if the message with the given id was sent before the retention time, so it is deleted already
+     *
+     * @param messageId       The snowflake id of the message
+     * @param retentionMillis The time in milliseconds after which a message expires
+     * @return If the message is expired
+     */
+    static boolean isExpired(long messageId, long retentionMillis) {
+        return timeOf(messageId) <= System.currentTimeMillis() - retentionMillis;
+    }
+
+    private static long timeOf(long messageId) {
+        return (messageId >>> 22) + DISCORD_EPOCH;
+    }
+
+    /**
+     * Creates the message tables and loads the existing partitions, blocking until the tables exist
+     */
+    void init() {
+        this.createNow(TABLE);
+        if (PARTITIONED) {
+            for (String table : GlobalAPI.getDatabaseDriver().getTables()) {
+                if (table.startsWith(PARTITION_PREFIX)) {
+                    this.knownTables.put(table, TableCreation.created(table));
+                }
+            }
+
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            this.createNow(PARTITION_PREFIX + PARTITION_FORMAT.format(today));
+            this.createNow(PARTITION_PREFIX + PARTITION_FORMAT.format(today.plusDays(1)));
+        }
+    }
+
+    private void createNow(@NotNull String table) {
+        if (this.knownTables.containsKey(table)) {
+            return;
+        }
+
+        if (GlobalAPI.getDatabaseDriver().createTable(table)) {
+            this.knownTables.put(table, TableCreation.created(table));
+        } else {
+            System.err.println("Unable to create message table " + table + ", trying again with the next message");
+        }
+    }
+
+    /**
+     * Creates the given table if it was not created yet
+     *
+     * @param table The table which should exist
+     */
+    void createIfAbsent(@NotNull String table) {
+        this.whenCreated(table, created -> {
+        });
+    }
+
+    /**
+     * Runs the given action as soon as the given table exists. If the table is still getting created the
+     * action runs after the creation, actions of the same table run in the order in which they were given.
+     * If a partition cannot get created, the action gets the legacy table instead, which is read by every
+     * lookup. If the legacy table itself cannot get created, the action is dropped.
+     *
+     * @param table  The table which should exist
+     * @param action The action which needs the table, it gets the table it should use
+     */
+    void whenCreated(@NotNull String table, @NotNull Consumer<String> action) {
+        TableCreation creation = this.knownTables.get(table);
+        if (creation == null) {
+            TableCreation newCreation = new TableCreation();
+            creation = this.knownTables.putIfAbsent(table, newCreation);
+            if (creation == null) {
+                creation = newCreation;
+                this.create(table, newCreation);
+            }
+        }
+
+        creation.run(action);
+    }
+
+    private void create(@NotNull String table, @NotNull TableCreation creation) {
+        GlobalAPI.getAsyncDatabaseDriver().createTable(table).whenComplete((created, throwable) -> {
+            if (throwable == null && created) {
+                creation.complete(table);
+                return;
+            }
+
+            if (throwable != null) {
+                throwable.printStackTrace();
+            }
+
+            System.err.println("Unable to create message table " + table + ", trying again with the next message");
+            this.knownTables.remove(table, creation);
+            creation.complete(table.equals(TABLE) ? null : TABLE);
+        });
+    }
+
+    /**
+     * Gets all tables which may contain the message with the given id, in the order they should be read
+     *
+     * @param messageId The snowflake id of the message
+     * @return The tables which may contain the message
+     */
+    @NotNull
+    Collection<String> lookupTables(long messageId) {
+        Collection<String> tables = new ArrayList<>(2);
+        String table = tableOf(messageId);
+        if (!table.equals(TABLE) && this.knownTables.containsKey(table)) {
+            tables.add(table);
+        }
+
+        tables.add(TABLE);
+        return tables;
+    }
+
+    /**
+     * Creates the partition of the next day and drops all partitions which only contain expired messages
+     *
+     * @param retentionMillis The time in milliseconds after which a message expires
+     */
+    void maintainPartitions(long retentionMillis) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        this.createIfAbsent(PARTITION_PREFIX + PARTITION_FORMAT.format(today.plusDays(1)));
+
+        long start = System.currentTimeMillis();
+        int dropped = 0;
+        for (String table : this.knownTables.keySet()) {
+            if (!table.startsWith(PARTITION_PREFIX)) {
+                continue;
+            }
+
+            LocalDate day;
+            try {
+                day = LocalDate.parse(table.substring(PARTITION_PREFIX.length()), PARTITION_FORMAT);
+            } catch (final DateTimeParseException ex) {
+                continue;
+            }
+
+            if (day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli() <= start - retentionMillis) {
+                this.knownTables.remove(table);
+                GlobalAPI.getDatabaseDriver().deleteTable(table);
+                dropped++;
+            }
+        }
+
+        if (dropped > 0) {
+            System.out.println("Dropped " + dropped + " expired message partitions in " + (System.currentTimeMillis() - start) + "ms");
+        }
+    }
+
+    /**
+     * The creation of a table and the actions which wait for it
+     */
+    private static final class TableCreation {
+
+        private final Collection<Consumer<String>> pendingActions = new ArrayList<>();
+
+        private boolean completed;
+
+        private String table;
+
+        @NotNull
+        private static TableCreation created(@NotNull String table) {
+            TableCreation creation = new TableCreation();
+            creation.completed = true;
+            creation.table = table;
+            return creation;
+        }
+
+        private synchronized void run(@NotNull Consumer<String> action) {
+            if (!this.completed) {
+                this.pendingActions.add(action);
+            } else if (this.table != null) {
+                action.accept(this.table);
+            }
+        }
+
+        /**
+         * @param table The table the actions should use or {@code null} if there is no table and the actions are dropped
+         */
+        private synchronized void complete(@Nullable String table) {
+            this.completed = true;
+            this.table = table;
+            if (table != null) {
+                this.pendingActions.forEach(action -> action.accept(table));
+            } else if (!this.pendingActions.isEmpty()) {
+                System.err.println("Dropped " + this.pendingActions.size() + " message writes as no message table exists");
+            }
+
+            this.pendingActions.clear();
+        }
+    }
+}
@@ -23,12 +23,16 @@
  */
 package systems.reformcloud.discord.listener;
 
+import systems.reformcloud.api.GlobalAPI;
 import systems.reformcloud.discord.DiscordUtil;
 import systems.reformcloud.discord.event.DiscordUserWarnEvent;
 import systems.reformcloud.discord.punishments.DiscordPunishment;
 import systems.reformcloud.events.annotations.Subscribe;
 import systems.reformcloud.user.punish.DefaultPunishmentTypes;
+import systems.reformcloud.user.punish.Punishment;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -39,7 +43,7 @@ import java.util.concurrent.TimeUnit;
  */
 public class DiscordWarnCreateListener {
 
-    @Subscribe
+    @Subscribe(async = true)
     public void handle(final DiscordUserWarnEvent event) {
         var member = DiscordUtil.getGuild().retrieveMemberById(event.getUser().getId(), true).submit().join();
         if (member == null) {
@@ -52,49 +56,45 @@ public class DiscordWarnCreateListener {
         }, error -> {
         });
 
-        if (!event.getUser().getPunishments().isEmpty()) {
-            return;
+        // the warns of the user may have changed since the event was called, so the count of the event is used
+        if (event.getWarnCount() == DiscordUtil.getFirstAutoMuteWarnCount()) {
+            this.punish(event, member.getIdLong(), System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1),
+                    DefaultPunishmentTypes.MUTE, "Auto punish for one day because of 5 warns");
+        } else if (event.getWarnCount() == DiscordUtil.getSecondAutoMuteWarnCount()) {
+            this.punish(event, member.getIdLong(), System.currentTimeMillis() + TimeUnit.DAYS.toMillis(5),
+                    DefaultPunishmentTypes.MUTE, "Auto punish for five days because of 10 warns");
+        } else if (event.getWarnCount() == DiscordUtil.getAutoBanWarnCount()) {
+            this.punish(event, member.getIdLong(), -1, DefaultPunishmentTypes.BAN, "Auto permanent punish because of 15 warns");
         }
+    }
 
-        if (event.getUser().getWarns().size() == DiscordUtil.getFirstAutoMuteWarnCount()) {
-            event.getUser().getPunishments().add(new DiscordPunishment(
-                    member.getIdLong(),
-                    System.currentTimeMillis(),
-                    event.getWarner().getId(),
-                    System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1),
-                    event.getWarner().getName(),
-                    DefaultPunishmentTypes.MUTE.name(),
-                    "Auto punish for one day because of 5 warns"
-            ));
-            event.getDiscordBot().getAssociatedUserManagement().updateUser(event.getUser());
-            return;
-        }
+    private void punish(DiscordUserWarnEvent event, long memberId, long timeout, DefaultPunishmentTypes type, String reason) {
+        var user = event.getUser();
+        synchronized (user) {
+            if (!user.getPunishments().isEmpty()) {
+                return;
+            }
 
-        if (event.getUser().getWarns().size() == DiscordUtil.getSecondAutoMuteWarnCount()) {
-            event.getUser().getPunishments().add(new DiscordPunishment(
-                    member.getIdLong(),
-                    System.currentTimeMillis(),
-                    event.getWarner().getId(),
-                    System.currentTimeMillis() + TimeUnit.DAYS.toMillis(5),
-                    event.getWarner().getName(),
-                    DefaultPunishmentTypes.MUTE.name(),
-                    "Auto punish for five days because of 10 warns"
-            ));
-            event.getDiscordBot().getAssociatedUserManagement().updateUser(event.getUser());
-            return;
-        }
+            Collection<Punishment> punishments = new ArrayList<>(user.getPunishments());
+            boolean committed = GlobalAPI.getDatabaseDriver().transaction(transaction -> {
+                user.getPunishments().add(new DiscordPunishment(
+                        transaction,
+                        memberId,
+                        System.currentTimeMillis(),
+                        event.getWarner().getId(),
+                        timeout,
+                        event.getWarner().getName(),
+                        type.name(),
+                        reason
+                ));
+                event.getDiscordBot().getAssociatedUserManagement().updateUser(user, transaction);
+            });
 
-        if (event.getUser().getWarns().size() == DiscordUtil.getAutoBanWarnCount()) {
-            event.getUser().getPunishments().add(new DiscordPunishment(
-                    member.getIdLong(),
-                    System.currentTimeMillis(),
-                    event.getWarner().getId(),
-                    -1,
-                    event.getWarner().getName(),
-                    DefaultPunishmentTypes.BAN.name(),
-                    "Auto permanent punish because of 15 warns"
-            ));
-            event.getDiscordBot().getAssociatedUserManagement().updateUser(event.getUser());
+            // the punishment is added before the commit, so it gets removed again if the commit fails
+            if (!committed) {
+                user.getPunishments().removeIf(punishment -> !punishments.contains(punishment));
+                System.err.println("Unable to store the automatic punishment of user " + memberId);
+            }
         }
     }
 }
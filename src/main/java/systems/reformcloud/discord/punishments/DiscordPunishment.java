@@ -23,6 +23,8 @@
  */
 package systems.reformcloud.discord.punishments;
 
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.database.transaction.DatabaseTransaction;
 import systems.reformcloud.user.punish.basic.BasicPunishment;
 
 /**
@@ -36,4 +38,9 @@ public final class DiscordPunishment extends BasicPunishment {
     public DiscordPunishment(long userID, long time, long warner, long timeout, String warnerName, String type, String reason) {
         super(userID, time, warner, timeout, "discord", warnerName, type, reason);
     }
+
+    public DiscordPunishment(@NotNull DatabaseTransaction transaction, long userID, long time, long warner, long timeout,
+                             String warnerName, String type, String reason) {
+        super(transaction, userID, time, warner, timeout, "discord", warnerName, type, reason);
+    }
 }
@@ -24,16 +24,20 @@
 package systems.reformcloud.discord.punishments.listener;
 
 import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
+import net.dv8tion.jda.api.requests.ErrorResponse;
 import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.api.GlobalAPI;
 import systems.reformcloud.bot.Bot;
 import systems.reformcloud.discord.DiscordUtil;
 import systems.reformcloud.discord.features.logger.LoggerFeature;
 import systems.reformcloud.events.annotations.Subscribe;
+import systems.reformcloud.scheduler.DelayedJob;
 import systems.reformcloud.user.punish.DefaultPunishmentTypes;
 import systems.reformcloud.user.punish.event.PunishmentCreateEvent;
 import systems.reformcloud.util.Constants;
 import systems.reformcloud.util.KeyValueHolder;
-import systems.reformcloud.util.ThreadSupport;
 
 import java.util.concurrent.TimeUnit;
 
@@ -45,8 +49,11 @@ import java.util.concurrent.TimeUnit;
  */
 public final class PunishmentCreateListener {
 
+    private static final String APPLY_JOB_TYPE = "punishment-apply";
+
     public PunishmentCreateListener(@NotNull Bot<JDA> bot) {
         this.bot = bot;
+        GlobalAPI.getDelayedJobScheduler().registerHandler(APPLY_JOB_TYPE, PunishmentCreateListener::apply);
     }
 
     private final Bot<JDA> bot;
@@ -89,14 +96,36 @@ public final class PunishmentCreateListener {
                     }
             );
 
-            ThreadSupport.sleep(TimeUnit.SECONDS, 5);
-
-            if (event.getPunishment().getPunishmentType().equals(DefaultPunishmentTypes.MUTE.name())) {
-                DiscordUtil.getGuild().addRoleToMember(discordMember, DiscordUtil.getPunishedRole()).queue();
-            } else if (event.getPunishment().getPunishmentType().equals(DefaultPunishmentTypes.BAN.name())) {
-                DiscordUtil.getGuild().ban(discordMember, 5, event.getPunishment().getReason()).queue();
-            }
+            // gives the user the time to read the private messages before the punishment is applied
+            GlobalAPI.getDelayedJobScheduler().schedule(
+                    APPLY_JOB_TYPE + ":" + event.getPunishment().getUniqueID(),
+                    APPLY_JOB_TYPE,
+                    System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5),
+                    event.getPunishment().getPunishmentType() + ":" + user.getId() + ":" + event.getPunishment().getReason()
+            );
         }, error -> {
         });
     }
+
+    private static void apply(@NotNull DelayedJob job) {
+        String[] payload = job.getPayload().split(":", 3);
+        if (payload[0].equals(DefaultPunishmentTypes.BAN.name())) {
+            // bans by the user id, so leaving the guild before the job runs does not evade the ban
+            DiscordUtil.getGuild().ban(payload[1], 5, payload[2]).complete();
+        } else if (payload[0].equals(DefaultPunishmentTypes.MUTE.name())) {
+            Member member;
+            try {
+                member = DiscordUtil.getGuild().retrieveMemberById(payload[1]).complete();
+            } catch (final ErrorResponseException ex) {
+                if (ex.getErrorResponse() == ErrorResponse.UNKNOWN_MEMBER) {
+                    System.out.println("Not muting user " + payload[1] + " as the user left the guild");
+                    return;
+                }
+
+                throw ex;
+            }
+
+            DiscordUtil.getGuild().addRoleToMember(member, DiscordUtil.getPunishedRole()).complete();
+        }
+    }
 }
@@ -64,14 +64,16 @@ public final class PunishmentRevokeListener {
             return;
         }
 
-        user.getPunishments()
-                .stream()
-                .filter(e -> e.getUniqueID().equals(event.getPunishment().getUniqueID()))
-                .findAny()
-                .ifPresent(e -> {
-                    user.getPunishments().remove(e);
-                    this.bot.getAssociatedUserManagement().updateUser(user);
-                });
+        synchronized (user) {
+            user.getPunishments()
+                    .stream()
+                    .filter(e -> e.getUniqueID().equals(event.getPunishment().getUniqueID()))
+                    .findAny()
+                    .ifPresent(e -> {
+                        user.getPunishments().remove(e);
+                        this.bot.getAssociatedUserManagement().updateUser(user);
+                    });
+        }
 
         DiscordUtil.getGuild().retrieveMemberById(user.getId()).queue(discordMember -> {
             if (discordMember == null) {
@@ -0,0 +1,91 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.discord.roles;
+
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Represents the changes which are needed to bring a member into the desired state, which is either a
+ * ban or a set of roles which are missing
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+final class RoleChange implements Comparable<RoleChange> {
+
+    static final int PRIORITY_BAN = 0;
+
+    static final int PRIORITY_PUNISHMENT = 1;
+
+    static final int PRIORITY_MEMBER = 2;
+
+    RoleChange(@NotNull Member member, @NotNull Collection<Role> rolesToAdd, @Nullable String banReason, int priority) {
+        this.member = member;
+        this.rolesToAdd = rolesToAdd;
+        this.banReason = banReason;
+        this.priority = priority;
+    }
+
+    private final Member member;
+
+    private final Collection<Role> rolesToAdd;
+
+    private final String banReason;
+
+    private final int priority;
+
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    @NotNull
+    Member getMember() {
+        return this.member;
+    }
+
+    @NotNull
+    Collection<Role> getRolesToAdd() {
+        return this.rolesToAdd;
+    }
+
+    @Nullable
+    String getBanReason() {
+        return this.banReason;
+    }
+
+    @NotNull
+    CompletableFuture<Void> getDone() {
+        return this.done;
+    }
+
+    @Override
+    public int compareTo(@NotNull RoleChange other) {
+        int compare = Integer.compare(this.priority, other.priority);
+        return compare != 0 ? compare : Long.compare(this.member.getIdLong(), other.member.getIdLong());
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.discord.roles;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import systems.reformcloud.user.User;
+import systems.reformcloud.user.punish.DefaultPunishmentTypes;
+import systems.reformcloud.user.punish.Punishment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+/**
+ * Brings the roles of guild members in line with their stored punishments. The desired state of every
+ * member is compared with the cached roles of the member and only the difference is sent to discord,
+ * with one request per member. The requests are sent one after another by a single worker, bans first,
+ * then missing punishment roles and member roles last, so the rate limits of discord are never flooded.
+ * Because members which are already in the desired state cause no request, a reconciliation which got
+ * interrupted continues where it stopped when it runs again.
+ * <p>
+ * Only members without any role are reconciled, like the member sync always did, so a member who was
+ * unbanned or unmuted by hand in discord keeps that state. Reconciling all members enforces the stored
+ * punishments on every member and has to be enabled explicitly.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class RoleReconciler implements AutoCloseable {
+
+    private static final int PROGRESS_INTERVAL = 100;
+
+    public RoleReconciler(@NotNull Guild guild, @NotNull Role memberRole, @NotNull Role punishedRole, boolean allMembers) {
+        this.guild = guild;
+        this.memberRole = memberRole;
+        this.punishedRole = punishedRole;
+        this.allMembers = allMembers;
+
+        this.worker = new Thread(this::work, "Role-Reconciler");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    private final Guild guild;
+
+    private final Role memberRole;
+
+    private final Role punishedRole;
+
+    private final boolean allMembers;
+
+    private final Thread worker;
+
+    private final PriorityBlockingQueue<RoleChange> queue = new PriorityBlockingQueue<>();
+
+    private final AtomicInteger planned = new AtomicInteger();
+
+    private final AtomicInteger applied = new AtomicInteger();
+
+    private final AtomicInteger failed = new AtomicInteger();
+
+    /**
+     * Computes the changes for all given members and queues them
+     *
+     * @param members The members which should get reconciled
+     * @param users   The function which gets the stored user of a member by its id
+     * @return A future which completes when all changes of the members were sent
+     */
+    @NotNull
+    public CompletableFuture<Void> reconcile(@NotNull Collection<Member> members, @NotNull LongFunction<User> users) {
+        List<RoleChange> changes = new ArrayList<>();
+        for (Member member : members) {
+            User user = users.apply(member.getIdLong());
+            RoleChange change = user == null ? null : this.plan(member, user);
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+
+        System.out.println("Reconciling roles of " + changes.size() + "/" + members.size() + " members");
+        if (changes.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        this.planned.addAndGet(changes.size());
+        this.queue.addAll(changes);
+        return CompletableFuture.allOf(changes.stream().map(RoleChange::getDone).toArray(CompletableFuture[]::new));
+    }
+
+    @Nullable
+    RoleChange plan(@NotNull Member member, @NotNull User user) {
+        if (!this.allMembers && !member.getRoles().isEmpty()) {
+            return null;
+        }
+
+        Punishment ban = this.findPunishment(user, DefaultPunishmentTypes.BAN);
+        if (ban != null) {
+            return new RoleChange(member, Collections.emptyList(), ban.getReason(), RoleChange.PRIORITY_BAN);
+        }
+
+        Collection<Role> missing = new ArrayList<>();
+        if (this.findPunishment(user, DefaultPunishmentTypes.MUTE) != null && !member.getRoles().contains(this.punishedRole)) {
+            missing.add(this.punishedRole);
+        }
+
+        if (member.getRoles().isEmpty()) {
+            missing.add(this.memberRole);
+        }
+
+        if (missing.isEmpty()) {
+            return null;
+        }
+
+        return new RoleChange(member, missing, null, missing.contains(this.punishedRole)
+                ? RoleChange.PRIORITY_PUNISHMENT
+                : RoleChange.PRIORITY_MEMBER);
+    }
+
+    /**
+     * Finds a punishment of the given type which is still active. Expired punishments which were not
+     * revoked yet (for example because the bot was offline) are ignored, their revocation is pending.
+     *
+     * @param user The user of which the punishment should get found
+     * @param type The type of the punishment
+     * @return An active punishment of the type or {@code null} if the user has none
+     */
+    @Nullable
+    private Punishment findPunishment(@NotNull User user, @NotNull DefaultPunishmentTypes type) {
+        long now = System.currentTimeMillis();
+        synchronized (user) {
+            return user.getPunishments()
+                    .stream()
+                    .filter(e -> e.getPunishmentType().equals(type.name()))
+                    .filter(e -> e.isPermanent() || e.getTimeoutTime() > now)
+                    .findAny()
+                    .orElse(null);
+        }
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            RoleChange change;
+            try {
+                change = this.queue.take();
+            } catch (final InterruptedException ex) {
+                break;
+            }
+
+            try {
+                if (change.getBanReason() != null) {
+                    this.guild.ban(change.getMember(), 0, change.getBanReason()).complete();
+                } else {
+                    this.guild.modifyMemberRoles(change.getMember(), change.getRolesToAdd(), Collections.emptyList()).complete();
+                }
+
+                this.applied.incrementAndGet();
+            } catch (final RuntimeException ex) {
+                this.failed.incrementAndGet();
+                System.err.println("Unable to reconcile roles of member " + change.getMember().getIdLong() + ": " + ex.getMessage());
+            }
+
+            this.reportProgress();
+            change.getDone().complete(null);
+        }
+    }
+
+    private void reportProgress() {
+        int done = this.applied.get() + this.failed.get();
+        if (done % PROGRESS_INTERVAL == 0 || this.queue.isEmpty()) {
+            System.out.println("Reconciled roles of " + done + "/" + this.planned.get() + " members ("
+                    + this.failed.get() + " failed, " + this.queue.size() + " queued)");
+        }
+    }
+
+    /**
+     * Stops the worker, the changes which are still queued are dropped and picked up again by the next
+     * reconciliation
+     */
+    @Override
+    public void close() {
+        this.worker.interrupt();
+
+        List<RoleChange> dropped = new ArrayList<>();
+        this.queue.drainTo(dropped);
+        dropped.forEach(change -> change.getDone().complete(null));
+    }
+}
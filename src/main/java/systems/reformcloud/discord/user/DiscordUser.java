@@ -24,15 +24,15 @@
 package systems.reformcloud.discord.user;
 
 import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.api.GlobalAPI;
+import systems.reformcloud.database.codec.CodecRegistry;
+import systems.reformcloud.database.transaction.DatabaseTransaction;
 import systems.reformcloud.user.User;
 import systems.reformcloud.user.information.BasicUserInformation;
 import systems.reformcloud.user.information.UserInformation;
 import systems.reformcloud.user.punish.Punishment;
 import systems.reformcloud.user.warn.Warn;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.util.Collection;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -94,12 +94,17 @@ public class DiscordUser implements User {
 
     @Override
     public void removePunishmentByUniqueId(@NotNull UUID uniqueID) {
+        GlobalAPI.getDatabaseDriver().transaction(transaction -> this.removePunishmentByUniqueId(uniqueID, transaction));
+    }
+
+    @Override
+    public void removePunishmentByUniqueId(@NotNull UUID uniqueID, @NotNull DatabaseTransaction transaction) {
         this.punishments
                 .stream()
                 .filter(e -> e.getUniqueID().equals(uniqueID))
                 .forEach(e -> {
                     punishments.remove(e);
-                    e.revoke();
+                    e.revoke(transaction);
                 });
     }
 
@@ -124,19 +129,6 @@ public class DiscordUser implements User {
     @Override
     public @NotNull
     byte[] serialize() {
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-             ObjectOutputStream stream = new ObjectOutputStream(byteArrayOutputStream)) {
-            stream.writeLong(this.id);
-
-            stream.writeObject(this.userInformation);
-            stream.writeObject(this.warns);
-            stream.writeObject(this.punishments);
-
-            return byteArrayOutputStream.toByteArray();
-        } catch (final IOException ex) {
-            ex.printStackTrace();
-        }
-
-        return new byte[0];
+        return CodecRegistry.encode(DiscordUserCodec.TYPE, this);
     }
 }
@@ -0,0 +1,107 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.discord.user;
+
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.database.codec.BinaryReader;
+import systems.reformcloud.database.codec.BinaryWriter;
+import systems.reformcloud.database.codec.Codec;
+import systems.reformcloud.user.User;
+import systems.reformcloud.user.information.BasicUserInformation;
+import systems.reformcloud.user.punish.Punishment;
+import systems.reformcloud.user.punish.basic.PunishmentCodec;
+import systems.reformcloud.user.warn.Warn;
+import systems.reformcloud.user.warn.basic.BasicWarn;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * The binary codec of the discord users including their warns and punishments
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class DiscordUserCodec implements Codec<User> {
+
+    public static final int TYPE = 3;
+
+    private final PunishmentCodec punishmentCodec = new PunishmentCodec();
+
+    @Override
+    public int getType() {
+        return TYPE;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void write(@NotNull User object, @NotNull BinaryWriter writer) {
+        writer.writeVarLong(object.getId())
+                .writeVarLong(object.getInformation().getFirstJoinTimeInMillis())
+                .writeVarLong(object.getInformation().getJoinTimeInMillis())
+                .writeVarLong(object.getInformation().getTotalJoins());
+
+        Collection<Warn> warns = new ArrayList<>(object.getWarns());
+        writer.writeVarLong(warns.size());
+        for (Warn warn : warns) {
+            writer.writeUniqueId(warn.getUniqueID())
+                    .writeVarLong(warn.getMilliTime())
+                    .writeVarLong(warn.getWarner())
+                    .writeString(warn.getWarnerName())
+                    .writeString(warn.getReason());
+        }
+
+        Collection<Punishment> punishments = new ArrayList<>(object.getPunishments());
+        writer.writeVarLong(punishments.size());
+        for (Punishment punishment : punishments) {
+            this.punishmentCodec.write(punishment, writer);
+        }
+    }
+
+    @NotNull
+    @Override
+    public User read(@NotNull BinaryReader reader) throws IOException {
+        long id = reader.readVarLong();
+        BasicUserInformation information = new BasicUserInformation(reader.readVarLong(), reader.readVarLong(), reader.readVarLong());
+
+        long warnCount = reader.readVarLong();
+        Collection<Warn> warns = new ArrayList<>();
+        for (long i = 0; i < warnCount; i++) {
+            warns.add(new BasicWarn(reader.readUniqueId(), reader.readVarLong(), reader.readVarLong(), reader.readString(), reader.readString()));
+        }
+
+        long punishmentCount = reader.readVarLong();
+        Collection<Punishment> punishments = new ArrayList<>();
+        for (long i = 0; i < punishmentCount; i++) {
+            punishments.add(this.punishmentCodec.read(reader));
+        }
+
+        return new DiscordUser(id, information, warns, punishments);
+    }
+}
@@ -29,11 +29,16 @@ import com.google.common.cache.CacheBuilder;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import systems.reformcloud.api.GlobalAPI;
+import systems.reformcloud.database.transaction.DatabaseTransaction;
 import systems.reformcloud.user.User;
 import systems.reformcloud.user.UserManagement;
 
 import javax.annotation.Nonnull;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Represents a {@link UserManagement} for the discord env.
@@ -81,18 +86,66 @@ public class DiscordUserManagement implements UserManagement {
         }
 
         var user = new DiscordUser(id);
-        GlobalAPI.getDatabaseDriver().insert(user);
+        GlobalAPI.getDatabaseDriver().upsert(user);
         userCache.put(id, user);
 
         return user;
     }
 
+    @Override
+    public @NotNull
+    Map<Long, User> getOrCreateAll(@NotNull long[] ids) {
+        Map<Long, User> users = new HashMap<>();
+        Collection<DiscordUserDatabaseObjectToken> missing = new ArrayList<>();
+        for (long id : ids) {
+            User present = userCache.getIfPresent(id);
+            if (present != null) {
+                users.put(id, present);
+            } else {
+                missing.add(new DiscordUserDatabaseObjectToken(id));
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return users;
+        }
+
+        Map<String, User> loaded = GlobalAPI.getDatabaseDriver().getMany(missing);
+        Collection<User> created = new ArrayList<>();
+        for (long id : ids) {
+            if (users.containsKey(id)) {
+                continue;
+            }
+
+            User user = loaded.get(Long.toString(id));
+            if (user == null) {
+                user = new DiscordUser(id);
+                created.add(user);
+            }
+
+            users.put(id, user);
+        }
+
+        GlobalAPI.getDatabaseDriver().insertMissing(created);
+        userCache.putAll(users);
+
+        return users;
+    }
+
     @Override
     public void updateUser(@NotNull User user) {
         this.userCache.invalidate(user.getId());
         this.userCache.put(user.getId(), user);
 
-        GlobalAPI.getDatabaseDriver().update(user);
+        GlobalAPI.getDatabaseDriver().upsert(user);
+    }
+
+    @Override
+    public void updateUser(@NotNull User user, @NotNull DatabaseTransaction transaction) {
+        this.userCache.invalidate(user.getId());
+        this.userCache.put(user.getId(), user);
+
+        transaction.upsert(user);
     }
 
     @Override
@@ -34,7 +34,7 @@ import org.jetbrains.annotations.NotNull;
 public interface EventManager {
 
     /**
-     * Calls an event
+     * Calls an event to the listeners of its type and of all its super classes and interfaces
      *
      * @param event The event which should be called
      */
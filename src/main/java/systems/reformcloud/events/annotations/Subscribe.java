@@ -42,4 +42,13 @@ public @interface Subscribe {
      * @return The priority of the listener which handles the event
      */
     ListenerPriority priority() default ListenerPriority.NORMAL;
+
+    /**
+     * Asynchronous listeners are called on the event lanes after the synchronous listeners of the event,
+     * in the order of the partition of the event. {@link systems.reformcloud.events.Cancellable} events are
+     * always handled synchronously.
+     *
+     * @return If the listener should get called asynchronously
+     */
+    boolean async() default false;
 }
@@ -0,0 +1,257 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.events.async;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes the asynchronous event listeners. Every partition key is mapped to one of the worker lanes, each
+ * lane is one thread with a bounded queue, so all tasks of a partition run in the order in which they were
+ * submitted. What happens if the queue of a lane is full is decided by the {@link OverflowPolicy}.
+ * <p>
+ * A task which submits a task itself (for example an asynchronous listener calling an event) runs on a lane,
+ * waiting for a full lane there could deadlock the lanes. Such a task is therefore never blocked, with
+ * {@link OverflowPolicy#BLOCK} the submitted task is run directly by the submitting lane instead.
+ * <p>
+ * Closing the executor rejects new tasks and lets the lanes run the tasks which are queued already, for at
+ * most {@link #CLOSE_TIMEOUT} milliseconds. Tasks which are still queued after that are dropped.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class OrderedEventExecutor implements AutoCloseable {
+
+    private static final long CLOSE_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+    private static final long POLL_INTERVAL = 100;
+
+    public OrderedEventExecutor(int lanes, int queueSize, @NotNull OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+        this.lanes = new Lane[Math.max(1, lanes)];
+        for (int i = 0; i < this.lanes.length; i++) {
+            this.lanes[i] = new Lane(i + 1, Math.max(1, queueSize));
+        }
+    }
+
+    private final Lane[] lanes;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final AtomicLong submitted = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicLong callerRuns = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    /**
+     * Executes the given task after all tasks which were submitted before with the same partition key
+     *
+     * @param partitionKey The key of the partition of the task
+     * @param task         The task to execute
+     */
+    public void execute(@NotNull Object partitionKey, @NotNull Runnable task) {
+        if (this.closed) {
+            this.dropped.incrementAndGet();
+            return;
+        }
+
+        this.submitted.incrementAndGet();
+        Lane lane = this.lanes[Math.floorMod(partitionKey.hashCode(), this.lanes.length)];
+        if (!lane.queue.offer(task)) {
+            switch (this.overflowPolicy) {
+                case DROP:
+                    this.dropped.incrementAndGet();
+                    return;
+                case CALLER_RUNS:
+                    this.callerRuns.incrementAndGet();
+                    this.run(task);
+                    return;
+                default:
+                    if (this.isLaneThread()) {
+                        // the lane waited for may be the current one (or wait for it), so waiting could never end
+                        this.callerRuns.incrementAndGet();
+                        this.run(task);
+                        return;
+                    }
+
+                    try {
+                        lane.queue.put(task);
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        this.dropped.incrementAndGet();
+                        return;
+                    }
+            }
+        }
+
+        this.maxQueueDepth.accumulateAndGet(lane.queue.size(), Math::max);
+    }
+
+    private boolean isLaneThread() {
+        Thread current = Thread.currentThread();
+        for (Lane lane : this.lanes) {
+            if (lane.thread == current) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return The amount of tasks which are waiting in the queues of all lanes
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Lane lane : this.lanes) {
+            depth += lane.queue.size();
+        }
+
+        return depth;
+    }
+
+    /**
+     * @return The statistics of the executor, mapped by the name of the statistic
+     */
+    @NotNull
+    public Map<String, String> getStatistics() {
+        Map<String, String> statistics = new LinkedHashMap<>();
+        statistics.put("lanes", Integer.toString(this.lanes.length));
+        statistics.put("overflow policy", this.overflowPolicy.name().toLowerCase(Locale.ROOT));
+        statistics.put("queue depth", Integer.toString(this.getQueueDepth()));
+        statistics.put("max queue depth", Integer.toString(this.maxQueueDepth.get()));
+        statistics.put("submitted tasks", Long.toString(this.submitted.get()));
+        statistics.put("dropped tasks", Long.toString(this.dropped.get()));
+        statistics.put("caller runs", Long.toString(this.callerRuns.get()));
+        statistics.put("failed tasks", Long.toString(this.failed.get()));
+        return statistics;
+    }
+
+    private void run(@NotNull Runnable task) {
+        try {
+            task.run();
+        } catch (final Throwable throwable) {
+            this.failed.incrementAndGet();
+            throwable.printStackTrace();
+        }
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+
+        long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT;
+        for (Lane lane : this.lanes) {
+            try {
+                lane.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        Collection<Runnable> remaining = new ArrayList<>();
+        for (Lane lane : this.lanes) {
+            lane.thread.interrupt();
+            lane.queue.drainTo(remaining);
+        }
+
+        if (!remaining.isEmpty()) {
+            this.dropped.addAndGet(remaining.size());
+            System.err.println("Dropped " + remaining.size() + " queued event tasks which did not run within " + CLOSE_TIMEOUT + "ms");
+        }
+    }
+
+    /**
+     * Represents what happens if a task gets submitted to a lane with a full queue
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * The submitting thread waits until the lane has space for the task, which keeps the order of the partition.
+         * A lane never waits for space, it runs the task itself like {@link #CALLER_RUNS}.
+         */
+        BLOCK,
+
+        /**
+         * The task is dropped
+         */
+        DROP,
+
+        /**
+         * The submitting thread runs the task itself, which may run it before older tasks of the partition
+         */
+        CALLER_RUNS
+    }
+
+    private final class Lane implements Runnable {
+
+        private Lane(int id, int queueSize) {
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+            this.thread = new Thread(this, "Event-Lane-" + id);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private final BlockingQueue<Runnable> queue;
+
+        private final Thread thread;
+
+        @Override
+        public void run() {
+            while (true) {
+                Runnable task;
+                try {
+                    task = this.queue.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                } catch (final InterruptedException ex) {
+                    return;
+                }
+
+                if (task != null) {
+                    OrderedEventExecutor.this.run(task);
+                } else if (closed) {
+                    // the queue is drained, no new tasks are accepted after closing
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -24,149 +24,128 @@
 package systems.reformcloud.events.basic;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import systems.reformcloud.events.Cancellable;
 import systems.reformcloud.events.Event;
 import systems.reformcloud.events.EventManager;
-import systems.reformcloud.events.annotations.Subscribe;
+import systems.reformcloud.events.PartitionedEvent;
+import systems.reformcloud.events.async.OrderedEventExecutor;
+import systems.reformcloud.events.util.EventSubscription;
+import systems.reformcloud.events.util.ListenerDispatchers;
 import systems.reformcloud.events.util.RegisteredListener;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Represents the basic implementation of the event manager.
+ * Represents the basic implementation of the event manager. Listeners receive the events of the type
+ * they subscribed to and of all its sub types. The registered listeners are kept in an immutable
+ * {@link ListenerRegistry} which gets replaced atomically on every change, so calling events needs no
+ * lock. The listeners of every called event class are resolved once per registry into a dispatch plan
+ * sorted by priority, listeners of more specific types first within the same priority. Asynchronous
+ * listeners are handed to the given executor, partitioned by the key of {@link PartitionedEvent}s or
+ * by the event type otherwise. If no executor is given all listeners are called synchronously.
  *
  * @author Pasqual Koschmieder
  * @since 1.0
  */
 public class BasicEventManager implements EventManager {
 
-    private final Lock lock = new ReentrantLock();
+    public BasicEventManager() {
+        this(null);
+    }
+
+    public BasicEventManager(@Nullable OrderedEventExecutor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
 
-    private final Map<Class<?>, Map<Byte, Map<Object, Method[]>>> byListenerAndPriority = new HashMap<>();
+    private final OrderedEventExecutor asyncExecutor;
 
-    private final Map<Class<?>, List<RegisteredListener>> done = new ConcurrentHashMap<>();
+    private final AtomicReference<ListenerRegistry> registry = new AtomicReference<>(ListenerRegistry.EMPTY);
 
     @Override
     public void callEvent(@NotNull Event event) {
-        List<RegisteredListener> listeners = done.get(event.getClass());
-        if (listeners == null) {
+        DispatchPlan plan = registry.get().getPlan(event.getClass());
+        if (this.asyncExecutor != null && plan.asyncListeners.length > 0 && !(event instanceof Cancellable)) {
+            for (RegisteredListener listener : plan.syncListeners) {
+                call(listener, event);
+            }
+
+            RegisteredListener[] asyncListeners = plan.asyncListeners;
+            Object partitionKey = event instanceof PartitionedEvent ? ((PartitionedEvent) event).getPartitionKey() : event.getClass();
+            this.asyncExecutor.execute(partitionKey, () -> callAll(asyncListeners, event));
             return;
         }
 
-        listeners.forEach(listener -> {
+        for (RegisteredListener listener : plan.listeners) {
+            call(listener, event);
+        }
+    }
+
+    /**
+     * Calls all given listeners, even if one of them fails. The failures are thrown afterwards, so the
+     * executor running the listeners knows about them.
+     *
+     * @param listeners The listeners to call
+     * @param event     The event to call the listeners with
+     */
+    private static void callAll(@NotNull RegisteredListener[] listeners, @NotNull Event event) {
+        RuntimeException failure = null;
+        for (RegisteredListener listener : listeners) {
             try {
                 listener.call(event);
-            } catch (final InvocationTargetException | IllegalAccessException ex) {
-                ex.printStackTrace();
+            } catch (final Throwable throwable) {
+                if (failure == null) {
+                    failure = new RuntimeException("Unable to call the listeners of " + event.getClass().getName());
+                }
+
+                failure.addSuppressed(throwable);
             }
-        });
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static void call(@NotNull RegisteredListener listener, @NotNull Event event) {
+        try {
+            listener.call(event);
+        } catch (final Throwable throwable) {
+            throwable.printStackTrace();
+        }
     }
 
     @Override
     public void registerListener(@NotNull Object listener) {
-        this.register(listener);
+        Map<Class<?>, RegisteredListener[]> listeners = find(listener);
+        registry.updateAndGet(current -> current.with(listener, listeners));
     }
 
     @Override
     public void unregisterListener(@NotNull Object listener) {
-        this.unregister(listener);
+        Set<Class<?>> eventTypes = find(listener).keySet();
+        registry.updateAndGet(current -> current.without(listener, eventTypes));
     }
 
     @Override
     public void unregisterAll() {
-        done.values().forEach(e -> e.forEach(listener -> unregisterListener(listener.getListener())));
+        registry.set(ListenerRegistry.EMPTY);
     }
 
-    private Map<Class<?>, Map<Byte, Set<Method>>> find(Object listener) {
-        Map<Class<?>, Map<Byte, Set<Method>>> result = new HashMap<>();
-        for (Method method : listener.getClass().getDeclaredMethods()) {
-            Subscribe annotation = method.getAnnotation(Subscribe.class);
-            if (annotation != null) {
-                Class<?>[] parameters = method.getParameterTypes();
-                Map<Byte, Set<Method>> map = result.computeIfAbsent(parameters[0], aClass -> new HashMap<>());
-                Set<Method> methods = map.computeIfAbsent(annotation.priority().getPriority(), aByte -> new HashSet<>());
-
-                methods.add(method);
-            }
+    private Map<Class<?>, RegisteredListener[]> find(Object listener) {
+        // the subscriptions are sorted by priority already
+        Map<Class<?>, List<RegisteredListener>> byEventType = new HashMap<>();
+        for (EventSubscription subscription : ListenerDispatchers.getSubscriptions(listener.getClass())) {
+            byEventType.computeIfAbsent(subscription.getEventType(), aClass -> new ArrayList<>())
+                    .add(new RegisteredListener(listener, subscription));
         }
 
-        return result;
-    }
-
-    private void register(Object listener) {
-        Map<Class<?>, Map<Byte, Set<Method>>> handlers = find(listener);
-        lock.lock();
-        try {
-            for (Map.Entry<Class<?>, Map<Byte, Set<Method>>> classMapEntry : handlers.entrySet()) {
-                Map<Byte, Map<Object, Method[]>> priorities = byListenerAndPriority.computeIfAbsent(classMapEntry.getKey(), aClass -> new HashMap<>());
-
-                for (Map.Entry<Byte, Set<Method>> byteSetEntry : classMapEntry.getValue().entrySet()) {
-                    Map<Object, Method[]> current = priorities.computeIfAbsent(byteSetEntry.getKey(), aByte -> new HashMap<>());
-
-                    Method[] methods = new Method[byteSetEntry.getValue().size()];
-                    current.put(listener, byteSetEntry.getValue().toArray(methods));
-                }
-
-                finallyDo(classMapEntry.getKey());
-            }
-        } finally {
-            lock.unlock();
+        Map<Class<?>, RegisteredListener[]> result = new HashMap<>();
+        for (Map.Entry<Class<?>, List<RegisteredListener>> entry : byEventType.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().toArray(new RegisteredListener[0]));
         }
-    }
 
-    private void finallyDo(Class<?> eventClass) {
-        Map<Byte, Map<Object, Method[]>> map = byListenerAndPriority.get(eventClass);
-        if (map != null) {
-            List<RegisteredListener> listeners = new ArrayList<>();
-
-            byte current = Byte.MIN_VALUE;
-            do {
-                Map<Object, Method[]> handlers = map.get(current);
-                if (handlers != null) {
-                    for (Map.Entry<Object, Method[]> objectEntry : handlers.entrySet()) {
-                        for (Method method : objectEntry.getValue()) {
-                            RegisteredListener loadedListener = new RegisteredListener(objectEntry.getKey(), method);
-                            listeners.add(loadedListener);
-                        }
-                    }
-                }
-            } while (current++ < Byte.MAX_VALUE);
-            done.put(eventClass, listeners);
-        } else {
-            done.remove(eventClass);
-        }
-    }
-
-    private void unregister(Object listener) {
-        Map<Class<?>, Map<Byte, Set<Method>>> handler = find(listener);
-        lock.lock();
-        try {
-            for (Map.Entry<Class<?>, Map<Byte, Set<Method>>> classMapEntry : handler.entrySet()) {
-                Map<Byte, Map<Object, Method[]>> prioritiesMap = byListenerAndPriority.get(classMapEntry.getKey());
-                if (prioritiesMap != null) {
-                    for (Byte aByte : classMapEntry.getValue().keySet()) {
-                        Map<Object, Method[]> currentPriority = prioritiesMap.get(aByte);
-                        if (currentPriority != null) {
-                            currentPriority.remove(listener);
-                            if (currentPriority.isEmpty()) {
-                                prioritiesMap.remove(aByte);
-                            }
-                        }
-                    }
-
-                    if (prioritiesMap.isEmpty()) {
-                        byListenerAndPriority.remove(classMapEntry.getKey());
-                    }
-                }
-
-                finallyDo(classMapEntry.getKey());
-            }
-        } finally {
-            lock.unlock();
-        }
+        return result;
     }
 }
@@ -0,0 +1,66 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.events.basic;
+
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.events.util.RegisteredListener;
+
+/**
+ * Represents the resolved listeners of one event class. The listeners are sorted by their priority and
+ * split up into the synchronous and asynchronous ones, so the dispatch only walks arrays.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+final class DispatchPlan {
+
+    DispatchPlan(@NotNull RegisteredListener[] listeners) {
+        int async = 0;
+        for (RegisteredListener listener : listeners) {
+            if (listener.isAsync()) {
+                async++;
+            }
+        }
+
+        this.listeners = listeners;
+        this.syncListeners = new RegisteredListener[listeners.length - async];
+        this.asyncListeners = new RegisteredListener[async];
+
+        int syncIndex = 0;
+        int asyncIndex = 0;
+        for (RegisteredListener listener : listeners) {
+            if (listener.isAsync()) {
+                this.asyncListeners[asyncIndex++] = listener;
+            } else {
+                this.syncListeners[syncIndex++] = listener;
+            }
+        }
+    }
+
+    final RegisteredListener[] listeners;
+
+    final RegisteredListener[] syncListeners;
+
+    final RegisteredListener[] asyncListeners;
+}
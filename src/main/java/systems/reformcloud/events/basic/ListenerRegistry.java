@@ -0,0 +1,214 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.events.basic;
+
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.events.util.RegisteredListener;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents an immutable snapshot of all registered listeners. The listeners of every event type are
+ * kept in an array sorted by priority, changes create a new snapshot which merges the changed arrays.
+ * The dispatch plans of the called event classes are cached per snapshot, so a new snapshot never sees
+ * the plans of an older one.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+final class ListenerRegistry {
+
+    static final ListenerRegistry EMPTY = new ListenerRegistry(Collections.emptyMap());
+
+    private static final RegisteredListener[] NO_LISTENERS = new RegisteredListener[0];
+
+    private ListenerRegistry(@NotNull Map<Class<?>, RegisteredListener[]> byEventType) {
+        this.byEventType = byEventType;
+    }
+
+    private final Map<Class<?>, RegisteredListener[]> byEventType;
+
+    private final Map<Class<?>, DispatchPlan> dispatchPlans = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the dispatch plan of the given event class, containing the listeners of the class and of all
+     * its super classes and interfaces
+     *
+     * @param eventClass The class of the called event
+     * @return The dispatch plan of the event class
+     */
+    @NotNull
+    DispatchPlan getPlan(@NotNull Class<?> eventClass) {
+        DispatchPlan plan = this.dispatchPlans.get(eventClass);
+        if (plan == null) {
+            plan = new DispatchPlan(this.resolve(eventClass));
+            DispatchPlan existing = this.dispatchPlans.putIfAbsent(eventClass, plan);
+            if (existing != null) {
+                plan = existing;
+            }
+        }
+
+        return plan;
+    }
+
+    /**
+     * Creates a snapshot which contains the given listeners of a listener instance. Listeners of the
+     * instance which were registered before for the same event types get replaced.
+     *
+     * @param listener  The listener instance
+     * @param listeners The listeners of the instance sorted by priority, mapped by the event type
+     * @return The new snapshot
+     */
+    @NotNull
+    ListenerRegistry with(@NotNull Object listener, @NotNull Map<Class<?>, RegisteredListener[]> listeners) {
+        Map<Class<?>, RegisteredListener[]> byEventType = new HashMap<>(this.byEventType);
+        for (Map.Entry<Class<?>, RegisteredListener[]> entry : listeners.entrySet()) {
+            RegisteredListener[] current = byEventType.getOrDefault(entry.getKey(), NO_LISTENERS);
+            byEventType.put(entry.getKey(), merge(remove(current, listener), entry.getValue()));
+        }
+
+        return new ListenerRegistry(byEventType);
+    }
+
+    /**
+     * Creates a snapshot without the listeners of the given listener instance
+     *
+     * @param listener   The listener instance
+     * @param eventTypes The event types the listener instance subscribed to
+     * @return The new snapshot
+     */
+    @NotNull
+    ListenerRegistry without(@NotNull Object listener, @NotNull Collection<Class<?>> eventTypes) {
+        Map<Class<?>, RegisteredListener[]> byEventType = new HashMap<>(this.byEventType);
+        for (Class<?> eventType : eventTypes) {
+            RegisteredListener[] current = byEventType.get(eventType);
+            if (current == null) {
+                continue;
+            }
+
+            RegisteredListener[] remaining = remove(current, listener);
+            if (remaining.length == 0) {
+                byEventType.remove(eventType);
+            } else {
+                byEventType.put(eventType, remaining);
+            }
+        }
+
+        return new ListenerRegistry(byEventType);
+    }
+
+    @NotNull
+    private RegisteredListener[] resolve(@NotNull Class<?> eventClass) {
+        // the types are merged from the most specific one, so they win ties within the same priority
+        RegisteredListener[] result = NO_LISTENERS;
+        for (Class<?> type : hierarchy(eventClass)) {
+            RegisteredListener[] listeners = this.byEventType.get(type);
+            if (listeners != null) {
+                result = merge(result, listeners);
+            }
+        }
+
+        return result;
+    }
+
+    @NotNull
+    private static Collection<Class<?>> hierarchy(@NotNull Class<?> eventClass) {
+        Set<Class<?>> result = new LinkedHashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(eventClass);
+        while (!queue.isEmpty()) {
+            Class<?> type = queue.poll();
+            if (result.add(type)) {
+                queue.addAll(Arrays.asList(type.getInterfaces()));
+                if (type.getSuperclass() != null) {
+                    queue.add(type.getSuperclass());
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Merges two arrays which are sorted by priority into one sorted array, the listeners of the first
+     * array come first within the same priority
+     */
+    @NotNull
+    static RegisteredListener[] merge(@NotNull RegisteredListener[] first, @NotNull RegisteredListener[] second) {
+        if (first.length == 0) {
+            return second;
+        }
+
+        if (second.length == 0) {
+            return first;
+        }
+
+        RegisteredListener[] result = new RegisteredListener[first.length + second.length];
+        int firstIndex = 0;
+        int secondIndex = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (secondIndex == second.length || (firstIndex < first.length
+                    && first[firstIndex].getSubscription().getPriority() <= second[secondIndex].getSubscription().getPriority())) {
+                result[i] = first[firstIndex++];
+            } else {
+                result[i] = second[secondIndex++];
+            }
+        }
+
+        return result;
+    }
+
+    @NotNull
+    private static RegisteredListener[] remove(@NotNull RegisteredListener[] listeners, @NotNull Object listener) {
+        int remaining = 0;
+        for (RegisteredListener registeredListener : listeners) {
+            if (!registeredListener.getListener().equals(listener)) {
+                remaining++;
+            }
+        }
+
+        if (remaining == listeners.length) {
+            return listeners;
+        }
+
+        RegisteredListener[] result = new RegisteredListener[remaining];
+        int index = 0;
+        for (RegisteredListener registeredListener : listeners) {
+            if (!registeredListener.getListener().equals(listener)) {
+                result[index++] = registeredListener;
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.events.processor;
+
+import systems.reformcloud.events.priority.ListenerPriority;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates the {@code ListenerDispatcher} of every listener type with {@code Subscribe} methods at compile
+ * time. The generated dispatcher calls the listener methods directly, so registering such a listener needs no
+ * reflective lookup of its methods and every listener method gets its own call site. Listener types of which
+ * a method is not accessible from their package are skipped and scanned at runtime instead.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+@SupportedAnnotationTypes(SubscribeProcessor.SUBSCRIBE)
+public final class SubscribeProcessor extends AbstractProcessor {
+
+    static final String SUBSCRIBE = "systems.reformcloud.events.annotations.Subscribe";
+
+    private static final String SUFFIX = "$EventDispatcher";
+
+    private static final String EVENT = "systems.reformcloud.events.Event";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement subscribe = this.processingEnv.getElementUtils().getTypeElement(SUBSCRIBE);
+        if (subscribe == null) {
+            return false;
+        }
+
+        Map<TypeElement, List<ExecutableElement>> listeners = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(subscribe)) {
+            if (element.getKind() == ElementKind.METHOD) {
+                listeners.computeIfAbsent((TypeElement) element.getEnclosingElement(), type -> new ArrayList<>())
+                        .add((ExecutableElement) element);
+            }
+        }
+
+        for (Map.Entry<TypeElement, List<ExecutableElement>> entry : listeners.entrySet()) {
+            if (this.validate(entry.getKey(), entry.getValue())) {
+                this.generate(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return false;
+    }
+
+    private boolean validate(TypeElement type, List<ExecutableElement> methods) {
+        Messager messager = this.processingEnv.getMessager();
+        boolean valid = true;
+        for (ExecutableElement method : methods) {
+            if (method.getParameters().size() != 1 || method.getModifiers().contains(Modifier.STATIC)) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Listener methods need exactly one event parameter and must not be static", method);
+                valid = false;
+            }
+        }
+
+        if (!valid) {
+            return false;
+        }
+
+        PackageElement packageElement = this.processingEnv.getElementUtils().getPackageOf(type);
+        for (ExecutableElement method : methods) {
+            if (method.getModifiers().contains(Modifier.PRIVATE)
+                    || !this.isAccessible(method.getParameters().get(0).asType(), packageElement)) {
+                messager.printMessage(Diagnostic.Kind.NOTE, "Skipping dispatcher of " + type + ", " + method + " is not accessible", method);
+                return false;
+            }
+        }
+
+        if (!this.isAccessible(type, packageElement)) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "Skipping dispatcher of " + type + ", the type is not accessible", type);
+            return false;
+        }
+
+        return true;
+    }
+
+    private void generate(TypeElement type, List<ExecutableElement> methods) {
+        PackageElement packageElement = this.processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = packageElement.getQualifiedName().toString();
+        String binaryName = this.processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+        String listenerType = this.erasure(type.asType());
+
+        List<ExecutableElement> sorted = new ArrayList<>(methods);
+        sorted.sort(Comparator.comparingInt(this::getPriority));
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+
+        source.append("@javax.annotation.processing.Generated(\"").append(SubscribeProcessor.class.getName()).append("\")\n")
+                .append("public final class ").append(simpleName)
+                .append(" implements systems.reformcloud.events.util.ListenerDispatcher {\n\n")
+                .append("    @Override\n")
+                .append("    public systems.reformcloud.events.util.EventSubscription[] getSubscriptions() {\n")
+                .append("        return new systems.reformcloud.events.util.EventSubscription[]{\n");
+        for (ExecutableElement method : sorted) {
+            String eventType = this.erasure(method.getParameters().get(0).asType());
+            source.append("                new systems.reformcloud.events.util.EventSubscription(")
+                    .append(eventType).append(".class, (byte) ").append(this.getPriority(method)).append(", ")
+                    .append(this.isAsync(method)).append(", \"")
+                    .append(method.getSimpleName()).append("\", (listener, event) -> ((")
+                    .append(listenerType).append(") listener).").append(method.getSimpleName())
+                    .append(this.castEvent(eventType)).append("),\n");
+        }
+
+        source.append("        };\n")
+                .append("    }\n")
+                .append("}\n");
+
+        String name = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try (Writer writer = this.processingEnv.getFiler().createSourceFile(name, type).openWriter()) {
+            writer.write(source.toString());
+        } catch (final IOException ex) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write " + name + ": " + ex.getMessage(), type);
+        }
+    }
+
+    private String castEvent(String eventType) {
+        // the invoker already passes an Event, casting to it would be redundant
+        return EVENT.equals(eventType) ? "(event)" : "((" + eventType + ") event)";
+    }
+
+    private int getPriority(ExecutableElement method) {
+        AnnotationValue value = this.getSubscribeValue(method, "priority");
+        if (value == null) {
+            return ListenerPriority.NORMAL.getPriority();
+        }
+
+        String priority = ((VariableElement) value.getValue()).getSimpleName().toString();
+        return ListenerPriority.valueOf(priority).getPriority();
+    }
+
+    private boolean isAsync(ExecutableElement method) {
+        AnnotationValue value = this.getSubscribeValue(method, "async");
+        return value != null && (Boolean) value.getValue();
+    }
+
+    private AnnotationValue getSubscribeValue(ExecutableElement method, String name) {
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            if (!((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(SUBSCRIBE)) {
+                continue;
+            }
+
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals(name)) {
+                    return entry.getValue();
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private String erasure(TypeMirror type) {
+        return this.processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private boolean isAccessible(TypeMirror type, PackageElement from) {
+        return type instanceof DeclaredType && this.isAccessible((TypeElement) ((DeclaredType) type).asElement(), from);
+    }
+
+    private boolean isAccessible(TypeElement type, PackageElement from) {
+        boolean samePackage = this.processingEnv.getElementUtils().getPackageOf(type).equals(from);
+        Element current = type;
+        while (current instanceof TypeElement) {
+            NestingKind nestingKind = ((TypeElement) current).getNestingKind();
+            if (current.getModifiers().contains(Modifier.PRIVATE)
+                    || (!samePackage && !current.getModifiers().contains(Modifier.PUBLIC))
+                    || nestingKind == NestingKind.LOCAL || nestingKind == NestingKind.ANONYMOUS) {
+                return false;
+            }
+
+            current = current.getEnclosingElement();
+        }
+
+        return true;
+    }
+}
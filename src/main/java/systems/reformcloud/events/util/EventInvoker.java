@@ -0,0 +1,48 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.events.util;
+
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.events.Event;
+
+/**
+ * Represents a direct call of a listener method which gets generated once per method, so the dispatch
+ * of events does not need to go through reflection.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ * @see EventInvokers
+ */
+@FunctionalInterface
+public interface EventInvoker {
+
+    /**
+     * Calls the listener method with the given event
+     *
+     * @param listener The listener instance of which the method should get called
+     * @param event    The event which should get passed to the method
+     * @throws Throwable Everything the listener method throws
+     */
+    void invoke(@NotNull Object listener, @NotNull Event event) throws Throwable;
+}
@@ -0,0 +1,114 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.events.util;
+
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.events.Event;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the invokers of listener methods. The invokers are generated through the {@link LambdaMetafactory}
+ * and cached per method. Methods which cannot be generated that way are called through a method handle,
+ * methods which cannot be accessed at all are called through reflection.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class EventInvokers {
+
+    private EventInvokers() {
+        throw new UnsupportedOperationException();
+    }
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class, Event.class);
+
+    private static final Map<Method, EventInvoker> INVOKERS = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the invoker of the given listener method, creating it if needed
+     *
+     * @param method The listener method which should get called by the invoker
+     * @return The invoker of the given method
+     */
+    @NotNull
+    public static EventInvoker getInvoker(@NotNull Method method) {
+        return INVOKERS.computeIfAbsent(method, EventInvokers::createInvoker);
+    }
+
+    @NotNull
+    private static EventInvoker createInvoker(@NotNull Method method) {
+        MethodHandles.Lookup lookup;
+        MethodHandle handle;
+        try {
+            lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            handle = lookup.unreflect(method);
+        } catch (final IllegalAccessException | RuntimeException ex) {
+            System.err.println("Unable to generate invoker for " + method + ", falling back to reflection: " + ex);
+            return reflectiveInvoker(method);
+        }
+
+        if (Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+            try {
+                CallSite callSite = LambdaMetafactory.metafactory(
+                        lookup,
+                        "invoke",
+                        MethodType.methodType(EventInvoker.class),
+                        INVOKER_TYPE,
+                        handle,
+                        MethodType.methodType(void.class, method.getDeclaringClass(), method.getParameterTypes()[0])
+                );
+                return (EventInvoker) callSite.getTarget().invokeExact();
+            } catch (final Throwable throwable) {
+                System.err.println("Unable to generate invoker for " + method + ", falling back to a method handle: " + throwable);
+            }
+        }
+
+        // listeners of interfaces cannot be generated as the event parameter is no sub type of the event class
+        MethodHandle adapted = handle.asType(INVOKER_TYPE);
+        return (listener, event) -> {
+            adapted.invokeExact(listener, event);
+        };
+    }
+
+    @NotNull
+    private static EventInvoker reflectiveInvoker(@NotNull Method method) {
+        method.setAccessible(true);
+        return (listener, event) -> {
+            try {
+                method.invoke(listener, event);
+            } catch (final InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        };
+    }
+}
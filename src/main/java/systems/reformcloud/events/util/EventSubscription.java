@@ -0,0 +1,96 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.events.util;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents one listener method of a listener type, the event type it handles, its priority and the
+ * invoker which calls it.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class EventSubscription {
+
+    public EventSubscription(@NotNull Class<?> eventType, byte priority, @NotNull String name, @NotNull EventInvoker invoker) {
+        this(eventType, priority, false, name, invoker);
+    }
+
+    public EventSubscription(@NotNull Class<?> eventType, byte priority, boolean async, @NotNull String name, @NotNull EventInvoker invoker) {
+        this.eventType = eventType;
+        this.priority = priority;
+        this.async = async;
+        this.name = name;
+        this.invoker = invoker;
+    }
+
+    private final Class<?> eventType;
+
+    private final byte priority;
+
+    private final boolean async;
+
+    private final String name;
+
+    private final EventInvoker invoker;
+
+    /**
+     * @return The type of the events which are handled by the listener method
+     */
+    @NotNull
+    public Class<?> getEventType() {
+        return eventType;
+    }
+
+    /**
+     * @return The priority of the listener method
+     */
+    public byte getPriority() {
+        return priority;
+    }
+
+    /**
+     * @return If the listener method should get called asynchronously
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * @return The name of the listener method
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The invoker which calls the listener method
+     */
+    @NotNull
+    public EventInvoker getInvoker() {
+        return invoker;
+    }
+}
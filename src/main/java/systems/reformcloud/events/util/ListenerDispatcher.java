@@ -0,0 +1,48 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.events.util;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents the dispatch table of a listener type which gets generated at compile time by the
+ * {@code SubscribeProcessor}. The generated class is named like the binary name of the listener type
+ * with the suffix {@link #SUFFIX}.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public interface ListenerDispatcher {
+
+    /**
+     * The suffix of the name of the generated dispatcher classes
+     */
+    String SUFFIX = "$EventDispatcher";
+
+    /**
+     * @return The subscriptions of all listener methods of the listener type, sorted by their priority
+     */
+    @NotNull
+    EventSubscription[] getSubscriptions();
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.events.util;
+
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.events.annotations.Subscribe;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Resolves the subscriptions of listener types. The dispatcher generated at compile time is used if it
+ * exists, otherwise the listener type gets scanned for {@link Subscribe} methods. The result is cached
+ * per listener type.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class ListenerDispatchers {
+
+    private ListenerDispatchers() {
+        throw new UnsupportedOperationException();
+    }
+
+    private static final ClassValue<EventSubscription[]> SUBSCRIPTIONS = new ClassValue<>() {
+        @Override
+        protected EventSubscription[] computeValue(Class<?> type) {
+            EventSubscription[] generated = loadGenerated(type);
+            return generated == null ? scan(type) : generated;
+        }
+    };
+
+    /**
+     * Gets the subscriptions of the given listener type
+     *
+     * @param listenerType The type of the listener
+     * @return The subscriptions of all listener methods of the type, sorted by their priority
+     */
+    @NotNull
+    public static EventSubscription[] getSubscriptions(@NotNull Class<?> listenerType) {
+        return SUBSCRIPTIONS.get(listenerType);
+    }
+
+    private static EventSubscription[] loadGenerated(@NotNull Class<?> type) {
+        try {
+            Class<?> dispatcher = Class.forName(type.getName() + ListenerDispatcher.SUFFIX, true, type.getClassLoader());
+            return ((ListenerDispatcher) dispatcher.getDeclaredConstructor().newInstance()).getSubscriptions();
+        } catch (final ClassNotFoundException ex) {
+            return null;
+        } catch (final ReflectiveOperationException | ClassCastException ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+
+    @NotNull
+    private static EventSubscription[] scan(@NotNull Class<?> type) {
+        List<EventSubscription> subscriptions = new ArrayList<>();
+        for (Method method : type.getDeclaredMethods()) {
+            Subscribe annotation = method.getAnnotation(Subscribe.class);
+            if (annotation != null) {
+                subscriptions.add(new EventSubscription(
+                        method.getParameterTypes()[0],
+                        annotation.priority().getPriority(),
+                        annotation.async(),
+                        method.getName(),
+                        EventInvokers.getInvoker(method)
+                ));
+            }
+        }
+
+        subscriptions.sort(Comparator.comparingInt(EventSubscription::getPriority));
+        return subscriptions.toArray(new EventSubscription[0]);
+    }
+}
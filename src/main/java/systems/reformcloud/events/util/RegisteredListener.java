@@ -26,9 +26,6 @@ package systems.reformcloud.events.util;
 import org.jetbrains.annotations.NotNull;
 import systems.reformcloud.events.Event;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-
 /**
  * Represents a registered listener an the method which is the method itself.
  *
@@ -37,21 +34,28 @@ import java.lang.reflect.Method;
  */
 public final class RegisteredListener {
 
-    public RegisteredListener(@NotNull Object listener, @NotNull Method method) {
+    public RegisteredListener(@NotNull Object listener, @NotNull EventSubscription subscription) {
         this.listener = listener;
-        this.method = method;
+        this.subscription = subscription;
+        this.invoker = subscription.getInvoker();
     }
 
     private final Object listener;
 
-    private final Method method;
+    private final EventSubscription subscription;
+
+    private final EventInvoker invoker;
+
+    public void call(@NotNull Event event) throws Throwable {
+        invoker.invoke(listener, event);
+    }
 
-    public void call(@NotNull Event event) throws InvocationTargetException, IllegalAccessException {
-        method.invoke(listener, event);
+    public boolean isAsync() {
+        return subscription.isAsync();
     }
 
-    public Method getMethod() {
-        return method;
+    public EventSubscription getSubscription() {
+        return subscription;
     }
 
     public Object getListener() {
@@ -29,18 +29,40 @@ import systems.reformcloud.api.GlobalAPI;
 import systems.reformcloud.bot.Bot;
 import systems.reformcloud.commands.CommandMap;
 import systems.reformcloud.commands.basic.BasicCommandMap;
+import systems.reformcloud.commands.basic.commands.DatabaseCommand;
+import systems.reformcloud.commands.basic.commands.EventsCommand;
 import systems.reformcloud.commands.basic.commands.HelpCommand;
 import systems.reformcloud.commands.basic.commands.StopCommand;
+import systems.reformcloud.config.ConfigUtil;
 import systems.reformcloud.database.DatabaseDriver;
+import systems.reformcloud.database.async.AsyncDatabaseDriver;
+import systems.reformcloud.database.codec.CodecRegistry;
+import systems.reformcloud.database.config.DatabaseConfig;
+import systems.reformcloud.database.log.LogDatabaseDriver;
+import systems.reformcloud.database.memory.InMemoryDatabaseDriver;
+import systems.reformcloud.database.mvstore.MVStoreDatabaseDriver;
+import systems.reformcloud.database.routing.RoutingDatabaseDriver;
 import systems.reformcloud.database.basic.H2DatabaseConfig;
 import systems.reformcloud.database.basic.H2DatabaseDriver;
 import systems.reformcloud.discord.DiscordBot;
 import systems.reformcloud.discord.DiscordConnectionHandler;
+import systems.reformcloud.discord.features.logger.GuildMessageCodec;
+import systems.reformcloud.discord.user.DiscordUserCodec;
 import systems.reformcloud.events.EventManager;
+import systems.reformcloud.events.async.OrderedEventExecutor;
 import systems.reformcloud.events.basic.BasicEventManager;
-import systems.reformcloud.user.punish.util.PunishmentsDeleter;
+import systems.reformcloud.scheduler.DelayedJobCodec;
+import systems.reformcloud.scheduler.DelayedJobScheduler;
+import systems.reformcloud.startup.StartupSequence;
+import systems.reformcloud.user.punish.basic.PunishmentCodec;
+import systems.reformcloud.user.punish.util.PunishmentExpiryScheduler;
 import systems.reformcloud.util.VersionChecker;
 
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 /**
  * The main class handler for the reformcloud bot. Handles all database connections and console stuff.
  *
@@ -49,29 +71,96 @@ import systems.reformcloud.util.VersionChecker;
  */
 public final class ReformCloudSystemsBotHandler {
 
-    private final EventManager eventManager = new BasicEventManager();
+    private final OrderedEventExecutor eventExecutor;
+    private final EventManager eventManager;
     private final CommandMap commandMap = new BasicCommandMap();
-    private final PunishmentsDeleter punishmentsDeleter;
+    private final DelayedJobScheduler delayedJobScheduler;
+    private final PunishmentExpiryScheduler punishmentExpiryScheduler;
     private final DatabaseDriver databaseDriver;
+    private final AsyncDatabaseDriver asyncDatabaseDriver;
     private final Bot<JDA> discordBot;
 
     public ReformCloudSystemsBotHandler() {
+        Properties properties = ConfigUtil.parseProperties();
+        this.eventExecutor = new OrderedEventExecutor(
+                Integer.parseInt(properties.getProperty("event-async-threads", "2")),
+                Integer.parseInt(properties.getProperty("event-async-queue-size", "1000")),
+                parseOverflowPolicy(properties.getProperty("event-async-overflow-policy", "block"))
+        );
+        this.eventManager = new BasicEventManager(this.eventExecutor);
+
         GlobalAPI.setParent(this);
 
         VersionChecker.init();
 
         this.commandMap.registerCommand(new HelpCommand());
         this.commandMap.registerCommand(new StopCommand());
+        this.commandMap.registerCommand(new DatabaseCommand());
+        this.commandMap.registerCommand(new EventsCommand());
+
+        CodecRegistry.register(new GuildMessageCodec());
+        CodecRegistry.register(new PunishmentCodec());
+        CodecRegistry.register(new DiscordUserCodec());
+        CodecRegistry.register(new DelayedJobCodec());
+
+        DatabaseConfig databaseConfig = new H2DatabaseConfig();
+        DatabaseDriver databaseDriver;
+        if (databaseConfig.getDriverType().equalsIgnoreCase("mvstore")) {
+            databaseDriver = new MVStoreDatabaseDriver();
+        } else if (databaseConfig.getDriverType().equalsIgnoreCase("memory")) {
+            databaseDriver = new InMemoryDatabaseDriver(
+                    Long.parseLong(properties.getProperty("database-memory-latency", "0")),
+                    TimeUnit.MICROSECONDS
+            );
+        } else {
+            databaseDriver = new H2DatabaseDriver();
+        }
+
+        if (properties.getProperty("database-message-store", "database").equalsIgnoreCase("log")) {
+            databaseDriver = new RoutingDatabaseDriver(databaseDriver).route("discord_messages", new LogDatabaseDriver(
+                    Integer.parseInt(properties.getProperty("database-log-segment-size", "16777216"))
+            ));
+        }
+
+        this.delayedJobScheduler = new DelayedJobScheduler(
+                Integer.parseInt(properties.getProperty("delayed-job-threads", "2"))
+        );
 
-        this.databaseDriver = new H2DatabaseDriver();
-        this.databaseDriver.connect(new H2DatabaseConfig());
+        StartupSequence startup = new StartupSequence();
+        CompletableFuture<JDA> gateway = startup.supply("gateway login", new DiscordConnectionHandler()::connect);
 
-        this.discordBot = new DiscordBot();
-        this.discordBot.doConnect(new DiscordConnectionHandler());
+        this.databaseDriver = databaseDriver;
+        CompletableFuture<Void> database = startup.run("database", () -> {
+            this.databaseDriver.connect(databaseConfig);
+            this.delayedJobScheduler.start();
+        });
 
-        this.punishmentsDeleter = new PunishmentsDeleter();
-        this.punishmentsDeleter.setDaemon(true);
-        this.punishmentsDeleter.start();
+        this.asyncDatabaseDriver = new AsyncDatabaseDriver(
+                this.databaseDriver,
+                Integer.parseInt(properties.getProperty("database-async-threads", "4")),
+                Integer.parseInt(properties.getProperty("database-async-queue-size", "1000")),
+                Long.parseLong(properties.getProperty("database-async-timeout", "10000"))
+        );
+
+        DiscordBot discordBot = new DiscordBot();
+        this.discordBot = discordBot;
+
+        CompletableFuture<Void> bot = startup.run("discord bot", () -> discordBot.doConnect(gateway::join), gateway, database);
+        startup.run("member sync", discordBot::syncMembers, bot);
+        startup.await(bot);
+
+        this.punishmentExpiryScheduler = new PunishmentExpiryScheduler();
+        this.punishmentExpiryScheduler.start();
+    }
+
+    @NotNull
+    private static OrderedEventExecutor.OverflowPolicy parseOverflowPolicy(@NotNull String name) {
+        try {
+            return OrderedEventExecutor.OverflowPolicy.valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException ex) {
+            System.err.println("Unknown event overflow policy " + name + ", using block (available: block, drop, caller-runs)");
+            return OrderedEventExecutor.OverflowPolicy.BLOCK;
+        }
     }
 
     /**
@@ -82,6 +171,22 @@ public final class ReformCloudSystemsBotHandler {
         return databaseDriver;
     }
 
+    /**
+     * @return The asynchronous view of the database driver which is currently active
+     */
+    @NotNull
+    public AsyncDatabaseDriver getAsyncDatabaseDriver() {
+        return asyncDatabaseDriver;
+    }
+
+    /**
+     * @return The scheduler which runs the persisted delayed jobs
+     */
+    @NotNull
+    public DelayedJobScheduler getDelayedJobScheduler() {
+        return delayedJobScheduler;
+    }
+
     /**
      * @return The currently running command map
      */
@@ -90,6 +195,14 @@ public final class ReformCloudSystemsBotHandler {
         return commandMap;
     }
 
+    /**
+     * @return The executor which runs the asynchronous event listeners
+     */
+    @NotNull
+    public OrderedEventExecutor getEventExecutor() {
+        return eventExecutor;
+    }
+
     /**
      * @return The current event manager which is used
      */
@@ -106,7 +219,12 @@ public final class ReformCloudSystemsBotHandler {
             this.discordBot.shutdownNow();
         }
 
+        // runs the queued asynchronous listeners while their listeners and the database are still available
+        this.eventExecutor.close();
         this.eventManager.unregisterAll();
-        this.punishmentsDeleter.interrupt();
+        this.punishmentExpiryScheduler.close();
+        this.delayedJobScheduler.close();
+        this.asyncDatabaseDriver.close();
+        this.databaseDriver.close();
     }
 }
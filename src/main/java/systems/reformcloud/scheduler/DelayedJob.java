@@ -0,0 +1,173 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.scheduler;
+
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.database.codec.CodecRegistry;
+import systems.reformcloud.database.object.DatabaseObject;
+
+import java.util.Locale;
+
+/**
+ * Represents a job which should run once its due time is reached. The id of the job is its idempotency
+ * key, scheduling a job with the id of a pending job replaces the pending job. A job is stored with its
+ * zero-padded due time in front of its id as key, so the jobs of a time range can be read by a key range scan.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class DelayedJob implements DatabaseObject {
+
+    private static final long serialVersionUID = -4305133249570240674L;
+
+    static final char KEY_SEPARATOR = ':';
+
+    private static final int DUE_TIME_LENGTH = 19;
+
+    DelayedJob(@NotNull String id, @NotNull String type, long dueTime, @NotNull String payload, int attempts) {
+        this.id = id;
+        this.type = type;
+        this.dueTime = dueTime;
+        this.payload = payload;
+        this.attempts = attempts;
+    }
+
+    private final String id;
+
+    private final String type;
+
+    private final long dueTime;
+
+    private final String payload;
+
+    private final int attempts;
+
+    /**
+     * @return The unique id of the job
+     */
+    @NotNull
+    public String getId() {
+        return this.id;
+    }
+
+    /**
+     * @return The type of the job, which selects the handler running the job
+     */
+    @NotNull
+    public String getType() {
+        return this.type;
+    }
+
+    /**
+     * @return The time in millis at which the job should run
+     */
+    public long getDueTime() {
+        return this.dueTime;
+    }
+
+    /**
+     * @return The data the handler needs to run the job
+     */
+    @NotNull
+    public String getPayload() {
+        return this.payload;
+    }
+
+    /**
+     * @return How often the job failed already
+     */
+    public int getAttempts() {
+        return this.attempts;
+    }
+
+    @NotNull
+    DelayedJob retryAt(long dueTime) {
+        return new DelayedJob(this.id, this.type, dueTime, this.payload, this.attempts + 1);
+    }
+
+    @NotNull
+    @Override
+    public String getKey() {
+        return createKey(this.dueTime, this.id);
+    }
+
+    /**
+     * Creates the database key of a job, the keys are ordered by the due time of the jobs
+     *
+     * @param dueTime The time in millis at which the job should run
+     * @param id      The id of the job, an empty id creates the first key of the due time
+     * @return The key of the job
+     */
+    @NotNull
+    static String createKey(long dueTime, @NotNull String id) {
+        return String.format(Locale.ROOT, "%0" + DUE_TIME_LENGTH + "d", Math.max(0, dueTime)) + KEY_SEPARATOR + id;
+    }
+
+    /**
+     * @param key The database key of a job
+     * @return If the key contains the due time of the job, keys of old jobs only consist of their id
+     */
+    static boolean isDueTimeKey(@NotNull String key) {
+        if (key.length() <= DUE_TIME_LENGTH || key.charAt(DUE_TIME_LENGTH) != KEY_SEPARATOR) {
+            return false;
+        }
+
+        for (int i = 0; i < DUE_TIME_LENGTH; i++) {
+            if (key.charAt(i) < '0' || key.charAt(i) > '9') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @param key The database key of a job created by {@link #createKey(long, String)}
+     * @return The due time of the job
+     */
+    static long dueTimeOf(@NotNull String key) {
+        return Long.parseLong(key.substring(0, DUE_TIME_LENGTH));
+    }
+
+    /**
+     * @param key The database key of a job created by {@link #createKey(long, String)}
+     * @return The id of the job
+     */
+    @NotNull
+    static String idOf(@NotNull String key) {
+        return key.substring(DUE_TIME_LENGTH + 1);
+    }
+
+    @NotNull
+    @Override
+    public String getTable() {
+        return DelayedJobScheduler.TABLE;
+    }
+
+    @NotNull
+    @Override
+    public byte[] serialize() {
+        return CodecRegistry.encode(DelayedJobCodec.TYPE, this);
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.scheduler;
+
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.api.GlobalAPI;
+import systems.reformcloud.database.codec.CodecRegistry;
+import systems.reformcloud.database.scan.ScanOptions;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs delayed jobs once they are due. Every job is persisted in the database before it gets scheduled
+ * and only deleted after its handler completed, so jobs survive restarts and jobs which became due while
+ * the bot was offline run directly after the start.
+ * <p>
+ * The jobs are stored by their due time, see {@link DelayedJob#createKey(long, String)}. On start only the
+ * keys of all jobs are read, the jobs themselves are loaded by a key range scan once they are due within the
+ * next {@link #LOAD_WINDOW} milliseconds. The loaded jobs are ordered by their due time in the delay queue of
+ * the executor.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class DelayedJobScheduler implements AutoCloseable {
+
+    public static final String TABLE = "delayed_jobs";
+
+    private static final int MAX_ATTEMPTS = 10;
+
+    private static final long MAX_RETRY_DELAY = TimeUnit.MINUTES.toMillis(10);
+
+    private static final long LOAD_WINDOW = TimeUnit.MINUTES.toMillis(10);
+
+    public DelayedJobScheduler(int threads) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "Delayed-Job-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    private final Map<String, DelayedJobHandler> handlers = new ConcurrentHashMap<>();
+
+    /**
+     * The due time of every stored job by the id of the job
+     */
+    private final Map<String, Long> dueTimes = new ConcurrentHashMap<>();
+
+    /**
+     * The stored jobs which are due before {@link #loadedUntil}, by the id of the job
+     */
+    private final Map<String, DelayedJob> pending = new ConcurrentHashMap<>();
+
+    private final Map<String, ScheduledFuture<?>> futures = new ConcurrentHashMap<>();
+
+    private long loadedUntil;
+
+    /**
+     * Reads the keys of all persisted jobs and loads the jobs which are due within the load window. The
+     * jobs are scheduled if their handler is registered already, the jobs of other types get scheduled
+     * when their handler gets registered.
+     */
+    public void start() {
+        long start = System.currentTimeMillis();
+        GlobalAPI.getDatabaseDriver().createTable(TABLE);
+        this.migrateLegacyKeys();
+
+        try (Stream<String> keys = GlobalAPI.getDatabaseDriver().keys(TABLE, ScanOptions.all())) {
+            keys.forEach(key -> this.dueTimes.put(DelayedJob.idOf(key), DelayedJob.dueTimeOf(key)));
+        }
+
+        long overdue = this.dueTimes.values().stream().filter(dueTime -> dueTime <= start).count();
+        this.load();
+        this.executor.scheduleAtFixedRate(this::load, LOAD_WINDOW / 2, LOAD_WINDOW / 2, TimeUnit.MILLISECONDS);
+
+        System.out.println("Loaded " + this.pending.size() + "/" + this.dueTimes.size() + " delayed jobs (" + overdue
+                + " overdue) in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * Loads all jobs which are due within the load window and were not loaded yet
+     */
+    private synchronized void load() {
+        long until = System.currentTimeMillis() + LOAD_WINDOW;
+        ScanOptions options = ScanOptions.all().to(DelayedJob.createKey(until, ""));
+        if (this.loadedUntil > 0) {
+            options = options.from(DelayedJob.createKey(this.loadedUntil, ""));
+        }
+
+        List<DelayedJob> jobs;
+        try (Stream<DelayedJob> loaded = GlobalAPI.getDatabaseDriver().scan(
+                TABLE,
+                options,
+                bytes -> CodecRegistry.<DelayedJob>decode(bytes, stream -> null)
+        )) {
+            jobs = loaded.filter(Objects::nonNull).collect(Collectors.toList());
+        }
+
+        this.loadedUntil = until;
+        for (DelayedJob job : jobs) {
+            if (Objects.equals(this.dueTimes.get(job.getId()), job.getDueTime()) && this.pending.putIfAbsent(job.getId(), job) == null) {
+                this.enqueue(job);
+            }
+        }
+    }
+
+    /**
+     * Stores the jobs which were stored by their id only with the key containing their due time
+     */
+    private void migrateLegacyKeys() {
+        List<String> legacyKeys;
+        try (Stream<String> keys = GlobalAPI.getDatabaseDriver().keys(TABLE, ScanOptions.all())) {
+            legacyKeys = keys.filter(key -> !DelayedJob.isDueTimeKey(key)).collect(Collectors.toList());
+        }
+
+        if (legacyKeys.isEmpty()) {
+            return;
+        }
+
+        Collection<DelayedJob> jobs = GlobalAPI.getDatabaseDriver().getMany(TABLE, legacyKeys).values().stream()
+                .map(bytes -> CodecRegistry.<DelayedJob>decode(bytes, stream -> null))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        boolean migrated = GlobalAPI.getDatabaseDriver().transaction(transaction -> {
+            legacyKeys.forEach(key -> transaction.deleteFromTable(TABLE, key));
+            jobs.forEach(transaction::upsert);
+        });
+        System.out.println((migrated ? "Migrated " : "Unable to migrate ") + jobs.size() + " delayed jobs to keys ordered by their due time");
+    }
+
+    /**
+     * Registers the handler of a job type and schedules all pending jobs of the type
+     *
+     * @param type    The type of the jobs
+     * @param handler The handler which runs the jobs
+     */
+    public void registerHandler(@NotNull String type, @NotNull DelayedJobHandler handler) {
+        this.handlers.put(type, handler);
+        this.enqueueAll(type);
+    }
+
+    /**
+     * Persists and schedules a job. A pending job with the same id gets replaced.
+     *
+     * @param id      The idempotency key of the job
+     * @param type    The type of the job
+     * @param dueTime The time in millis at which the job should run
+     * @param payload The data the handler needs to run the job
+     */
+    public synchronized void schedule(@NotNull String id, @NotNull String type, long dueTime, @NotNull String payload) {
+        DelayedJob job = new DelayedJob(id, type, dueTime, payload, 0);
+        Long oldDueTime = this.dueTimes.put(id, dueTime);
+        GlobalAPI.getDatabaseDriver().transaction(transaction -> {
+            if (oldDueTime != null && oldDueTime != dueTime) {
+                transaction.deleteFromTable(TABLE, DelayedJob.createKey(oldDueTime, id));
+            }
+
+            transaction.upsert(job);
+        });
+
+        if (dueTime < this.loadedUntil) {
+            this.pending.put(id, job);
+            this.enqueue(job);
+        } else {
+            // the job gets loaded again once it is due within the load window
+            this.unload(id);
+        }
+    }
+
+    /**
+     * Persists and schedules a job if there is no pending job with the same id
+     *
+     * @param id      The idempotency key of the job
+     * @param type    The type of the job
+     * @param dueTime The time in millis at which the job should run
+     * @param payload The data the handler needs to run the job
+     * @return If the job got scheduled
+     */
+    public synchronized boolean scheduleIfAbsent(@NotNull String id, @NotNull String type, long dueTime, @NotNull String payload) {
+        if (this.dueTimes.containsKey(id)) {
+            return false;
+        }
+
+        this.schedule(id, type, dueTime, payload);
+        return true;
+    }
+
+    /**
+     * Cancels a pending job and removes it from the database
+     *
+     * @param id The id of the job
+     * @return If a pending job got cancelled
+     */
+    public synchronized boolean cancel(@NotNull String id) {
+        this.unload(id);
+        Long dueTime = this.dueTimes.remove(id);
+        if (dueTime != null) {
+            GlobalAPI.getDatabaseDriver().deleteFromTable(TABLE, DelayedJob.createKey(dueTime, id));
+        }
+
+        return dueTime != null;
+    }
+
+    /**
+     * @param id The id of the job
+     * @return If a job with the given id is stored and did not complete yet
+     */
+    public boolean isScheduled(@NotNull String id) {
+        return this.dueTimes.containsKey(id);
+    }
+
+    /**
+     * @return The ids of all jobs which are stored and did not complete yet
+     */
+    @NotNull
+    public Set<String> getScheduledIds() {
+        return Collections.unmodifiableSet(this.dueTimes.keySet());
+    }
+
+    /**
+     * @param type The type of the jobs
+     * @return All loaded pending jobs of the given type, which are the jobs due within the load window
+     */
+    @NotNull
+    public Collection<DelayedJob> getPendingJobs(@NotNull String type) {
+        return this.pending.values().stream().filter(e -> e.getType().equals(type)).collect(Collectors.toList());
+    }
+
+    /**
+     * @return The amount of jobs which are stored and did not complete yet
+     */
+    public int getPendingCount() {
+        return this.dueTimes.size();
+    }
+
+    private void unload(@NotNull String id) {
+        this.pending.remove(id);
+        ScheduledFuture<?> future = this.futures.remove(id);
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    private void enqueueAll(@NotNull String type) {
+        this.pending.values().stream()
+                .filter(e -> e.getType().equals(type))
+                .filter(e -> !this.futures.containsKey(e.getId()))
+                .forEach(this::enqueue);
+    }
+
+    private void enqueue(@NotNull DelayedJob job) {
+        if (!this.handlers.containsKey(job.getType()) || this.executor.isShutdown()) {
+            return;
+        }
+
+        long delay = Math.max(0, job.getDueTime() - System.currentTimeMillis());
+        ScheduledFuture<?> old = this.futures.put(
+                job.getId(),
+                this.executor.schedule(() -> this.run(job), delay, TimeUnit.MILLISECONDS)
+        );
+        if (old != null) {
+            old.cancel(false);
+        }
+    }
+
+    private void run(@NotNull DelayedJob job) {
+        if (this.pending.get(job.getId()) != job) {
+            return;
+        }
+
+        try {
+            Objects.requireNonNull(this.handlers.get(job.getType())).handle(job);
+        } catch (final RuntimeException ex) {
+            ex.printStackTrace();
+            this.retry(job);
+            return;
+        }
+
+        this.complete(job);
+    }
+
+    private synchronized void complete(@NotNull DelayedJob job) {
+        if (this.pending.remove(job.getId(), job)) {
+            this.futures.remove(job.getId());
+            this.dueTimes.remove(job.getId(), job.getDueTime());
+            GlobalAPI.getDatabaseDriver().deleteFromTable(job);
+        }
+    }
+
+    private synchronized void retry(@NotNull DelayedJob job) {
+        if (job.getAttempts() + 1 >= MAX_ATTEMPTS) {
+            this.complete(job);
+            System.err.println("Giving up delayed job " + job.getId() + " after " + MAX_ATTEMPTS + " attempts");
+            return;
+        }
+
+        long delay = Math.min(MAX_RETRY_DELAY, TimeUnit.SECONDS.toMillis(1L << job.getAttempts()));
+        DelayedJob retry = job.retryAt(System.currentTimeMillis() + delay);
+        if (this.pending.replace(job.getId(), job, retry)) {
+            this.dueTimes.put(job.getId(), retry.getDueTime());
+            GlobalAPI.getDatabaseDriver().transaction(transaction -> {
+                transaction.deleteFromTable(job);
+                transaction.upsert(retry);
+            });
+            this.enqueue(retry);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+        this.futures.clear();
+    }
+}
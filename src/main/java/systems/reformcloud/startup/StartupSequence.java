@@ -0,0 +1,128 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.startup;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the phases of the startup concurrently as soon as the phases they depend on are done and logs
+ * the time every phase took. A phase which fails fails all phases depending on it.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class StartupSequence {
+
+    private final long startTime = System.currentTimeMillis();
+
+    private final Collection<CompletableFuture<?>> phases = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactory() {
+
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NotNull Runnable runnable) {
+            Thread thread = new Thread(runnable, "Startup-" + this.threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * Registers a new phase of the startup
+     *
+     * @param name         The display name of the phase
+     * @param task         The task of the phase
+     * @param dependencies The phases which have to be done before the phase can start
+     * @return A future which completes when the phase is done
+     */
+    @NotNull
+    public CompletableFuture<Void> run(@NotNull String name, @NotNull Runnable task, @NotNull CompletableFuture<?>... dependencies) {
+        return this.supply(name, () -> {
+            task.run();
+            return null;
+        }, dependencies);
+    }
+
+    /**
+     * Registers a new phase of the startup which produces a result for the phases depending on it
+     *
+     * @param name         The display name of the phase
+     * @param task         The task of the phase
+     * @param dependencies The phases which have to be done before the phase can start
+     * @param <T>          The type of the result of the phase
+     * @return A future which completes with the result of the phase when the phase is done
+     */
+    @NotNull
+    public <T> CompletableFuture<T> supply(@NotNull String name, @NotNull Supplier<T> task, @NotNull CompletableFuture<?>... dependencies) {
+        CompletableFuture<T> phase = CompletableFuture.allOf(dependencies).thenApplyAsync(ignored -> {
+            long start = System.currentTimeMillis();
+            T result = task.get();
+
+            System.out.println("Startup phase " + name + " finished in " + (System.currentTimeMillis() - start)
+                    + "ms (" + (System.currentTimeMillis() - this.startTime) + "ms after start)");
+            return result;
+        }, this.executor);
+        this.phases.add(phase);
+        return phase;
+    }
+
+    /**
+     * Waits until the given phases are done, all other phases keep running in the background. No phases
+     * may be registered after this method was called.
+     *
+     * @param required The phases which have to be done before the method returns
+     * @throws RuntimeException The exception of the first failed required phase
+     */
+    public void await(@NotNull CompletableFuture<?>... required) {
+        CompletableFuture.allOf(this.phases.toArray(CompletableFuture[]::new)).whenComplete((ignored, throwable) -> {
+            if (throwable == null) {
+                System.out.println("Startup finished in " + (System.currentTimeMillis() - this.startTime) + "ms");
+            } else {
+                System.err.println("Startup failed after " + (System.currentTimeMillis() - this.startTime) + "ms");
+                throwable.printStackTrace();
+            }
+
+            this.executor.shutdown();
+        });
+
+        try {
+            CompletableFuture.allOf(required).join();
+        } catch (final CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            throw ex;
+        }
+
+        System.out.println("Startup is ready after " + (System.currentTimeMillis() - this.startTime) + "ms");
+    }
+}
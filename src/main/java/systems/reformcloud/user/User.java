@@ -26,6 +26,7 @@ package systems.reformcloud.user;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import systems.reformcloud.database.object.DatabaseObject;
+import systems.reformcloud.database.transaction.DatabaseTransaction;
 import systems.reformcloud.user.information.UserInformation;
 import systems.reformcloud.user.punish.Punishment;
 import systems.reformcloud.user.warn.Warn;
@@ -75,7 +76,7 @@ public interface User extends DatabaseObject {
     }
 
     /**
-     * @return The warns which the user got
+     * @return The warns which the user got, changes of the warns have to be synchronized on the user
      */
     @NotNull
     Collection<Warn> getWarns();
@@ -87,6 +88,14 @@ public interface User extends DatabaseObject {
      */
     void removePunishmentByUniqueId(@NotNull UUID uniqueID);
 
+    /**
+     * Removes a specific punishment by the unique id of it as part of the given transaction
+     *
+     * @param uniqueID    The unique id of the punishment which should get removed
+     * @param transaction The transaction to which the deletion of the punishment should get added
+     */
+    void removePunishmentByUniqueId(@NotNull UUID uniqueID, @NotNull DatabaseTransaction transaction);
+
     /**
      * Gets a specific punishment by its unique id
      *
@@ -103,7 +112,7 @@ public interface User extends DatabaseObject {
     }
 
     /**
-     * @return All punishments the user got
+     * @return All punishments the user got, changes of the punishments have to be synchronized on the user
      */
     @NotNull
     Collection<Punishment> getPunishments();
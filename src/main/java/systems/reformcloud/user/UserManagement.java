@@ -25,8 +25,10 @@ package systems.reformcloud.user;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import systems.reformcloud.database.transaction.DatabaseTransaction;
 
 import javax.annotation.Nonnull;
+import java.util.Map;
 
 /**
  * Represents any user management for for example discord or teamspeak.
@@ -55,6 +57,16 @@ public interface UserManagement {
     @NotNull
     User getUserOrCreate(long id);
 
+    /**
+     * Retrieves multiple users from the database by their ids and creates the users which do not exist yet.
+     * All users are loaded and created in batches instead of one database operation per user.
+     *
+     * @param ids The ids of the users
+     * @return All users which are in the database or were newly created by their id
+     */
+    @NotNull
+    Map<Long, User> getOrCreateAll(@NotNull long[] ids);
+
     /**
      * Updates the given user in the database
      *
@@ -62,6 +74,14 @@ public interface UserManagement {
      */
     void updateUser(@NotNull User user);
 
+    /**
+     * Updates the given user in the database as part of the given transaction
+     *
+     * @param user        The user which should get updated
+     * @param transaction The transaction to which the update of the user should get added
+     */
+    void updateUser(@NotNull User user, @NotNull DatabaseTransaction transaction);
+
     /**
      * Invalidates the given user from the local cache
      *
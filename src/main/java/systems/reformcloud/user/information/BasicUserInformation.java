@@ -35,6 +35,12 @@ public class BasicUserInformation implements UserInformation {
         this.firstJoinTime = System.currentTimeMillis();
     }
 
+    public BasicUserInformation(long firstJoinTime, long joinTimeInMillis, long totalJoins) {
+        this.firstJoinTime = firstJoinTime;
+        this.joinTimeInMillis = joinTimeInMillis;
+        this.totalJoins = totalJoins;
+    }
+
     private long joinTimeInMillis = 0;
 
     private long totalJoins = 0;
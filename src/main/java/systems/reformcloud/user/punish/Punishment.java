@@ -25,6 +25,7 @@ package systems.reformcloud.user.punish;
 
 import org.jetbrains.annotations.NotNull;
 import systems.reformcloud.database.object.DatabaseObject;
+import systems.reformcloud.database.transaction.DatabaseTransaction;
 
 import java.util.UUID;
 
@@ -98,4 +99,11 @@ public interface Punishment extends DatabaseObject {
      * Revokes the punishment
      */
     void revoke();
+
+    /**
+     * Revokes the punishment as part of the given transaction
+     *
+     * @param transaction The transaction to which the deletion of the punishment should get added
+     */
+    void revoke(@NotNull DatabaseTransaction transaction);
 }
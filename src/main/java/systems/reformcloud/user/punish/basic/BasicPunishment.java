@@ -25,14 +25,14 @@ package systems.reformcloud.user.punish.basic;
 
 import org.jetbrains.annotations.NotNull;
 import systems.reformcloud.api.GlobalAPI;
+import systems.reformcloud.database.codec.CodecRegistry;
+import systems.reformcloud.database.transaction.DatabaseTransaction;
 import systems.reformcloud.user.punish.Punishment;
 import systems.reformcloud.user.punish.event.PunishmentCreateEvent;
 import systems.reformcloud.user.punish.event.PunishmentRevokeEvent;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.util.UUID;
 
 /**
@@ -59,11 +59,20 @@ public class BasicPunishment implements Punishment {
 
     public BasicPunishment(long userID, long time, long warner, long timeout, String provider, String warnerName, String type, String reason) {
         this(UUID.randomUUID(), userID, time, warner, timeout, provider, warnerName, type, reason);
+        GlobalAPI.getDatabaseDriver().transaction(this::create);
+    }
 
-        GlobalAPI.getDatabaseDriver().createTable("punishments_" + type);
-        GlobalAPI.getDatabaseDriver().insert(this);
+    public BasicPunishment(@NotNull DatabaseTransaction transaction, long userID, long time, long warner, long timeout,
+                           String provider, String warnerName, String type, String reason) {
+        this(UUID.randomUUID(), userID, time, warner, timeout, provider, warnerName, type, reason);
+        this.create(transaction);
+    }
 
-        GlobalAPI.getEventManager().callEvent(new PunishmentCreateEvent(this));
+    private void create(@NotNull DatabaseTransaction transaction) {
+        GlobalAPI.getDatabaseDriver().createTable(this.getTable());
+
+        transaction.upsert(this);
+        transaction.onCommit(() -> GlobalAPI.getEventManager().callEvent(new PunishmentCreateEvent(this)));
     }
 
     private final UUID uniqueID;
@@ -136,14 +145,19 @@ public class BasicPunishment implements Punishment {
 
     @Override
     public void revoke() {
-        GlobalAPI.getDatabaseDriver().deleteFromTable(this);
-        GlobalAPI.getEventManager().callEvent(new PunishmentRevokeEvent(this));
+        GlobalAPI.getDatabaseDriver().transaction(this::revoke);
+    }
+
+    @Override
+    public void revoke(@NotNull DatabaseTransaction transaction) {
+        transaction.deleteFromTable(this);
+        transaction.onCommit(() -> GlobalAPI.getEventManager().callEvent(new PunishmentRevokeEvent(this)));
     }
 
     @NotNull
     @Override
     public String getKey() {
-        return Long.toString(this.timeout);
+        return PunishmentDatabaseObjectToken.createKey(this.timeout, this.uniqueID);
     }
 
     @NotNull
@@ -174,29 +188,7 @@ public class BasicPunishment implements Punishment {
     @NotNull
     @Override
     public byte[] serialize() {
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-             ObjectOutputStream stream = new ObjectOutputStream(byteArrayOutputStream)) {
-            stream.writeLong(this.uniqueID.getMostSignificantBits());
-            stream.writeLong(this.uniqueID.getLeastSignificantBits());
-
-            stream.writeLong(this.userID);
-            stream.writeLong(this.time);
-            stream.writeLong(this.warner);
-            stream.writeLong(this.timeout);
-
-            stream.writeUTF(this.provider);
-            stream.writeUTF(this.warnerName);
-            stream.writeUTF(this.type);
-            stream.writeUTF(this.reason);
-
-            stream.writeObject(null);
-
-            return byteArrayOutputStream.toByteArray();
-        } catch (final IOException ex) {
-            ex.printStackTrace();
-        }
-
-        return new byte[0];
+        return CodecRegistry.encode(PunishmentCodec.TYPE, this);
     }
 
     @NotNull
@@ -0,0 +1,82 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.user.punish.basic;
+
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.database.codec.BinaryReader;
+import systems.reformcloud.database.codec.BinaryWriter;
+import systems.reformcloud.database.codec.Codec;
+import systems.reformcloud.user.punish.Punishment;
+
+import java.io.IOException;
+
+/**
+ * The binary codec of the punishments
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class PunishmentCodec implements Codec<Punishment> {
+
+    public static final int TYPE = 2;
+
+    @Override
+    public int getType() {
+        return TYPE;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void write(@NotNull Punishment object, @NotNull BinaryWriter writer) {
+        writer.writeUniqueId(object.getUniqueID())
+                .writeVarLong(object.getUserID())
+                .writeVarLong(object.getMilliTime())
+                .writeVarLong(object.getWarner())
+                .writeSignedVarLong(object.getTimeoutTime())
+                .writeString(object.getProvider())
+                .writeString(object.getWarnerName())
+                .writeString(object.getPunishmentType())
+                .writeString(object.getReason());
+    }
+
+    @NotNull
+    @Override
+    public Punishment read(@NotNull BinaryReader reader) throws IOException {
+        return new BasicPunishment(
+                reader.readUniqueId(),
+                reader.readVarLong(),
+                reader.readVarLong(),
+                reader.readVarLong(),
+                reader.readSignedVarLong(),
+                reader.readString(),
+                reader.readString(),
+                reader.readString(),
+                reader.readString()
+        );
+    }
+}
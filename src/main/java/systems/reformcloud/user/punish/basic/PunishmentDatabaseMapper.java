@@ -25,11 +25,10 @@ package systems.reformcloud.user.punish.basic;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import systems.reformcloud.database.codec.CodecRegistry;
 import systems.reformcloud.user.punish.Punishment;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.util.function.Function;
 
 /**
@@ -48,13 +47,14 @@ public class PunishmentDatabaseMapper implements Function<byte[], Punishment> {
     @Override
     @Nullable
     public Punishment apply(@NotNull byte[] bytes) {
-        try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(bytes);
-             ObjectInputStream stream = new ObjectInputStream(byteArrayInputStream)) {
-            return BasicPunishment.deserialize(stream);
-        } catch (final IOException ex) {
-            ex.printStackTrace();
-        }
+        return CodecRegistry.decode(bytes, stream -> {
+            try {
+                return BasicPunishment.deserialize(stream);
+            } catch (final IOException ex) {
+                ex.printStackTrace();
+            }
 
-        return null;
+            return null;
+        });
     }
 }
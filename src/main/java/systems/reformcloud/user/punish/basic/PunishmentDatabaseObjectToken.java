@@ -29,6 +29,7 @@ import systems.reformcloud.user.punish.Punishment;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.util.UUID;
 
 /**
  * Represents a database token for a punishment
@@ -38,11 +39,35 @@ import java.io.ObjectInputStream;
  */
 public class PunishmentDatabaseObjectToken extends DatabaseObjectToken<Punishment> {
 
-    public PunishmentDatabaseObjectToken(long timeOut, String type) {
+    public PunishmentDatabaseObjectToken(UUID uniqueID, long timeOut, String type) {
+        this.uniqueID = uniqueID;
         this.timeOut = timeOut;
         this.type = type;
     }
 
+    /**
+     * The separator between the timeout and the unique id in the key of a punishment
+     */
+    public static final char KEY_SEPARATOR = ':';
+
+    /**
+     * Creates the key of a punishment in its table. The key starts with the timeout of the punishment which
+     * is padded to a fixed length, so the keys of expiring punishments are ordered by their timeout and the
+     * keys of permanent punishments are ordered before all of them. The unique id makes the key unique for
+     * punishments with the same timeout.
+     *
+     * @param timeOut  The timeout of the punishment or {@code -1} if the punishment is permanent
+     * @param uniqueID The unique id of the punishment
+     * @return The key of the punishment
+     */
+    @NotNull
+    public static String createKey(long timeOut, @NotNull UUID uniqueID) {
+        String timeout = timeOut == -1 ? "-1" : String.format("%019d", timeOut);
+        return timeout + KEY_SEPARATOR + uniqueID;
+    }
+
+    private final UUID uniqueID;
+
     private final long timeOut;
 
     private final String type;
@@ -68,6 +93,6 @@ public class PunishmentDatabaseObjectToken extends DatabaseObjectToken<Punishmen
     @NotNull
     @Override
     public String getKey() {
-        return Long.toString(timeOut);
+        return createKey(timeOut, uniqueID);
     }
 }
@@ -0,0 +1,134 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.user.punish.util;
+
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.api.GlobalAPI;
+import systems.reformcloud.events.annotations.Subscribe;
+import systems.reformcloud.scheduler.DelayedJob;
+import systems.reformcloud.user.punish.DefaultPunishmentTypes;
+import systems.reformcloud.user.punish.Punishment;
+import systems.reformcloud.user.punish.basic.PunishmentDatabaseObjectToken;
+import systems.reformcloud.user.punish.event.PunishmentCreateEvent;
+import systems.reformcloud.user.punish.event.PunishmentRevokeEvent;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Revokes every punishment exactly when it expires. The revocations are persisted as delayed jobs, so
+ * punishments which expired while the bot was offline are revoked directly after the start. Punishments
+ * without a revocation job (for example the ones created before the jobs existed) are loaded once on
+ * start, afterwards the jobs are kept up to date by the create and revoke events of punishments.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public final class PunishmentExpiryScheduler implements AutoCloseable {
+
+    public static final String JOB_TYPE = "punishment-expiry";
+
+    public PunishmentExpiryScheduler() {
+        for (DefaultPunishmentTypes type : DefaultPunishmentTypes.values()) {
+            GlobalAPI.getDatabaseDriver().createTable("punishments_" + type);
+            PunishmentKeyMigration.migrate(type.name());
+        }
+    }
+
+    /**
+     * Registers the revocation job handler, schedules the revocation of all punishments which have no
+     * job yet and starts listening to punishment changes
+     */
+    public void start() {
+        long start = System.currentTimeMillis();
+        GlobalAPI.getDelayedJobScheduler().registerHandler(JOB_TYPE, this::revoke);
+
+        int loaded = 0;
+        for (DefaultPunishmentTypes type : DefaultPunishmentTypes.values()) {
+            Collection<Punishment> punishments = PunishmentsDatabaseReader.getExpiringPunishments(
+                    type.name(),
+                    uniqueID -> !GlobalAPI.getDelayedJobScheduler().isScheduled(jobId(uniqueID))
+            );
+            punishments.forEach(this::schedule);
+            loaded += punishments.size();
+        }
+
+        GlobalAPI.getEventManager().registerListener(this);
+        System.out.println("Scheduled the expiry of " + loaded + " punishments without expiry job in "
+                + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    @Subscribe
+    public void handle(final PunishmentCreateEvent event) {
+        this.schedule(event.getPunishment());
+    }
+
+    @Subscribe
+    public void handle(final PunishmentRevokeEvent event) {
+        GlobalAPI.getDelayedJobScheduler().cancel(jobId(event.getPunishment().getUniqueID()));
+    }
+
+    private void schedule(@NotNull Punishment punishment) {
+        if (punishment.isPermanent()) {
+            return;
+        }
+
+        GlobalAPI.getDelayedJobScheduler().scheduleIfAbsent(
+                jobId(punishment.getUniqueID()),
+                JOB_TYPE,
+                punishment.getTimeoutTime(),
+                punishment.getPunishmentType() + ":" + punishment.getTimeoutTime() + ":" + punishment.getUniqueID()
+        );
+    }
+
+    private void revoke(@NotNull DelayedJob job) {
+        String[] payload = job.getPayload().split(":");
+        Punishment punishment = GlobalAPI.getDatabaseDriver().get(
+                new PunishmentDatabaseObjectToken(UUID.fromString(payload[2]), Long.parseLong(payload[1]), payload[0])
+        );
+
+        // a second run of the job finds the punishment revoked already
+        if (punishment != null) {
+            punishment.revoke();
+        }
+    }
+
+    @NotNull
+    private static String jobId(@NotNull UUID uniqueID) {
+        return JOB_TYPE + ":" + uniqueID;
+    }
+
+    /**
+     * @return The amount of punishments which are waiting for their expiry
+     */
+    public int getScheduledCount() {
+        String prefix = JOB_TYPE + ":";
+        return (int) GlobalAPI.getDelayedJobScheduler().getScheduledIds().stream().filter(id -> id.startsWith(prefix)).count();
+    }
+
+    @Override
+    public void close() {
+        GlobalAPI.getEventManager().unregisterListener(this);
+    }
+}
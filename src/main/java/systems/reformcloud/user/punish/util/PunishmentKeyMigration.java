@@ -0,0 +1,90 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.user.punish.util;
+
+import org.jetbrains.annotations.NotNull;
+import systems.reformcloud.api.GlobalAPI;
+import systems.reformcloud.user.punish.Punishment;
+import systems.reformcloud.user.punish.basic.PunishmentDatabaseObjectToken;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Re-keys the punishments which were stored with their timeout as key. Every permanent punishment and
+ * every punishment with the same timeout shared a key, so the punishments are moved to the unique key
+ * of {@link PunishmentDatabaseObjectToken#createKey(long, java.util.UUID)}. The migration runs blocking
+ * during the start and afterwards the table gets migrated to the indexed layout.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+final class PunishmentKeyMigration {
+
+    private PunishmentKeyMigration() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Re-keys all punishments of the given type which are stored with a key of the old layout
+     *
+     * @param type The type of the punishments to migrate
+     */
+    static void migrate(@NotNull String type) {
+        String table = "punishments_" + type;
+        Set<String> keys;
+        try (Stream<String> stream = GlobalAPI.getDatabaseDriver().keys(table)) {
+            keys = stream.collect(Collectors.toSet());
+        }
+
+        Collection<String> legacyKeys = keys.stream()
+                .filter(key -> key.indexOf(PunishmentDatabaseObjectToken.KEY_SEPARATOR) == -1)
+                .collect(Collectors.toList());
+        if (legacyKeys.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        PunishmentDatabaseObjectToken token = new PunishmentDatabaseObjectToken(null, -1, type);
+        Collection<Punishment> punishments = GlobalAPI.getDatabaseDriver().getAll(table, token::decode).stream()
+                .filter(punishment -> !keys.contains(punishment.getKey()))
+                .collect(Collectors.toList());
+
+        boolean committed = GlobalAPI.getDatabaseDriver().transaction(transaction -> {
+            legacyKeys.forEach(key -> transaction.deleteFromTable(table, key));
+            punishments.forEach(transaction::upsert);
+        });
+        if (!committed) {
+            System.err.println("Unable to re-key the punishments of table " + table + ", keeping the old keys");
+            return;
+        }
+
+        // the table has unique keys now and can be migrated to the indexed layout
+        GlobalAPI.getDatabaseDriver().createTable(table);
+        System.out.println("Re-keyed " + punishments.size() + " punishments of " + legacyKeys.size() + " keys in table "
+                + table + " in " + (System.currentTimeMillis() - start) + "ms");
+    }
+}
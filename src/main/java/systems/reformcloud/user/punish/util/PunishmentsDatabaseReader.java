@@ -25,17 +25,18 @@ package systems.reformcloud.user.punish.util;
 
 import org.jetbrains.annotations.NotNull;
 import systems.reformcloud.api.GlobalAPI;
+import systems.reformcloud.database.scan.ScanOptions;
 import systems.reformcloud.user.punish.Punishment;
 import systems.reformcloud.user.punish.basic.PunishmentDatabaseObjectToken;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
- * A simple database reader which
+ * A simple database reader which loads punishments from the punishment tables
  *
  * @author Pasqual Koschmieder
  * @since 1.0
@@ -46,23 +47,51 @@ public final class PunishmentsDatabaseReader {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Loads all punishments of the given type which are not permanent. The keys of the punishment tables
+     * start with the timeouts of the punishments, so the permanent punishments are skipped by the key range
+     * of the scan and the remaining punishments are loaded in batches.
+     *
+     * @param type The type of the punishments
+     * @return All punishments of the type which expire at some point
+     */
     @NotNull
-    public static Map<UUID, Punishment> getExpiringPunishments(@NotNull String type) {
-        Map<UUID, Punishment> map = new HashMap<>();
-        GlobalAPI.getDatabaseDriver().keys("punishments_" + type)
-                .filter(Objects::nonNull)
-                .map(e -> {
-                    try {
-                        return Long.parseLong(e);
-                    } catch (final NumberFormatException ex) {
-                        return null;
+    public static Collection<Punishment> getExpiringPunishments(@NotNull String type) {
+        return getExpiringPunishments(type, uniqueID -> true);
+    }
+
+    /**
+     * Loads the punishments of the given type which are not permanent and of which the unique id matches
+     * the given filter. Only the keys are read to filter the punishments, so punishments which are
+     * filtered out are never loaded.
+     *
+     * @param type           The type of the punishments
+     * @param uniqueIDFilter The filter of the unique ids of the punishments to load
+     * @return The punishments of the type which expire at some point and match the filter
+     */
+    @NotNull
+    public static Collection<Punishment> getExpiringPunishments(@NotNull String type, @NotNull Predicate<UUID> uniqueIDFilter) {
+        Collection<PunishmentDatabaseObjectToken> tokens = new ArrayList<>();
+        try (Stream<String> keys = GlobalAPI.getDatabaseDriver().keys("punishments_" + type, ScanOptions.all().from("0"))) {
+            keys.forEach(key -> {
+                int separator = key.indexOf(PunishmentDatabaseObjectToken.KEY_SEPARATOR);
+                if (separator == -1) {
+                    // keys of the old layout are re-keyed by the punishment key migration
+                    return;
+                }
+
+                try {
+                    long timeout = Long.parseLong(key.substring(0, separator));
+                    UUID uniqueID = UUID.fromString(key.substring(separator + 1));
+                    if (uniqueIDFilter.test(uniqueID)) {
+                        tokens.add(new PunishmentDatabaseObjectToken(uniqueID, timeout, type));
                     }
-                }).filter(Objects::nonNull)
-                .filter(e -> e != -1)
-                .filter(e -> (e + TimeUnit.MINUTES.toMillis(10) > System.currentTimeMillis()))
-                .map(e -> GlobalAPI.getDatabaseDriver().getOrDefault(new PunishmentDatabaseObjectToken(e, type), null))
-                .filter(Objects::nonNull)
-                .forEach(punishment -> map.putIfAbsent(punishment.getUniqueID(), punishment));
-        return map;
+                } catch (final IllegalArgumentException ex) {
+                    System.err.println("Skipping punishment with invalid key " + key + " in table punishments_" + type);
+                }
+            });
+        }
+
+        return GlobalAPI.getDatabaseDriver().getMany(tokens).values();
     }
 }
@@ -37,7 +37,11 @@ import java.util.UUID;
 public class BasicWarn implements Warn {
 
     public BasicWarn(long time, long warner, String warnerName, String reason) {
-        this.uniqueID = UUID.randomUUID();
+        this(UUID.randomUUID(), time, warner, warnerName, reason);
+    }
+
+    public BasicWarn(UUID uniqueID, long time, long warner, String warnerName, String reason) {
+        this.uniqueID = uniqueID;
         this.time = time;
         this.warner = warner;
         this.warnerName = warnerName;
@@ -0,0 +1,369 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import systems.reformcloud.database.config.DatabaseConfig;
+import systems.reformcloud.database.object.DatabaseObjectToken;
+import systems.reformcloud.database.object.TimedDatabaseObject;
+import systems.reformcloud.database.scan.ScanOptions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The behaviour every database driver has to provide. Every driver has a test which extends this suite,
+ * so all drivers are checked against the same expectations. The keys used by the suite are numeric and
+ * of the same length, because some drivers only support numeric keys.
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+public abstract class DatabaseDriverConformanceTest {
+
+    protected static final String TABLE = "conformance";
+
+    @TempDir
+    protected Path directory;
+
+    protected DatabaseDriver driver;
+
+    /**
+     * @return A new instance of the driver which should get tested
+     */
+    @NotNull
+    protected abstract DatabaseDriver createDriver();
+
+    /**
+     * @return If the driver deletes every object created before the given time, drivers which delete whole
+     * blocks of objects may keep some of them a bit longer
+     */
+    protected boolean deletesAllExpiredObjects() {
+        return true;
+    }
+
+    @BeforeEach
+    void connect() {
+        this.driver = this.createDriver();
+        assertTrue(this.driver.connect(new TestDatabaseConfig(this.directory)));
+        this.driver.createTable(TABLE);
+    }
+
+    @AfterEach
+    void close() {
+        this.driver.close();
+    }
+
+    /**
+     * Closes the driver and connects a new instance of it to the same database
+     */
+    protected void reconnect() {
+        this.driver.close();
+        this.driver = this.createDriver();
+        assertTrue(this.driver.connect(new TestDatabaseConfig(this.directory)));
+    }
+
+    @Test
+    void insertStoresNewObject() {
+        this.driver.insert(new TestObject("1000", "first"));
+
+        assertEquals("first", this.driver.get(token("1000")));
+        assertNull(this.driver.get(token("1001")));
+        assertEquals("default", this.driver.getOrDefault(token("1001"), "default"));
+    }
+
+    @Test
+    void insertKeepsExistingObject() {
+        this.driver.insert(new TestObject("1000", "first"));
+        this.driver.insert(new TestObject("1000", "second"));
+
+        assertEquals("first", this.driver.get(token("1000")));
+    }
+
+    @Test
+    void updateOnlyReplacesExistingObject() {
+        this.driver.insert(new TestObject("1000", "first"));
+        this.driver.update(new TestObject("1000", "updated"));
+        this.driver.update(new TestObject("1001", "missing"));
+
+        assertEquals("updated", this.driver.get(token("1000")));
+        assertNull(this.driver.get(token("1001")));
+    }
+
+    @Test
+    void upsertInsertsAndReplaces() {
+        this.driver.upsert(new TestObject("1000", "first"));
+        this.driver.upsert(new TestObject("1000", "second"));
+        this.driver.upsert(new TestObject("1001", "other"));
+
+        assertEquals("second", this.driver.get(token("1000")));
+        assertEquals("other", this.driver.get(token("1001")));
+    }
+
+    @Test
+    void upsertAllWritesEveryObject() {
+        this.driver.insert(new TestObject("1000", "first"));
+
+        assertTrue(this.driver.upsertAll(Arrays.asList(new TestObject("1000", "replaced"), new TestObject("1001", "new"))));
+        assertEquals("replaced", this.driver.get(token("1000")));
+        assertEquals("new", this.driver.get(token("1001")));
+    }
+
+    @Test
+    void getManyReturnsOnlyExistingObjects() {
+        this.insertObjects(1000, 5, 0);
+
+        Map<String, byte[]> values = this.driver.getMany(TABLE, Arrays.asList("1001", "1003", "1009"));
+        assertEquals(new HashSet<>(Arrays.asList("1001", "1003")), values.keySet());
+        assertEquals("value1003", token("1003").decode(values.get("1003")));
+    }
+
+    @Test
+    void scanReturnsObjectsInKeyOrder() {
+        this.driver.upsert(new TestObject("1002", "value1002"));
+        this.driver.upsert(new TestObject("1000", "value1000"));
+        this.driver.upsert(new TestObject("1001", "value1001"));
+
+        try (Stream<String> values = this.driver.scan(TABLE, ScanOptions.all(), bytes -> token("").decode(bytes))) {
+            assertEquals(Arrays.asList("value1000", "value1001", "value1002"), values.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void scanHonoursRangeAndLimit() {
+        this.insertObjects(1000, 10, 0);
+
+        assertEquals(Arrays.asList("1002", "1003", "1004"), this.keys(ScanOptions.all().from("1002").to("1005")));
+        assertEquals(Arrays.asList("1007", "1008", "1009"), this.keys(ScanOptions.all().from("1007")));
+        assertEquals(Arrays.asList("1000", "1001"), this.keys(ScanOptions.all().to("1002")));
+        assertEquals(Arrays.asList("1003", "1004"), this.keys(ScanOptions.all().from("1003").limit(2)));
+        assertEquals(Collections.emptyList(), this.keys(ScanOptions.all().from("1005").to("1005")));
+        assertEquals(10, this.keys(ScanOptions.all().fetchSize(3)).size());
+
+        try (Stream<String> values = this.driver.scan(TABLE, ScanOptions.all().from("1008").limit(5), bytes -> token("").decode(bytes))) {
+            assertEquals(Arrays.asList("value1008", "value1009"), values.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void deleteRemovesObject() {
+        this.insertObjects(1000, 2, 0);
+        this.driver.deleteFromTable(TABLE, "1000");
+
+        assertNull(this.driver.get(token("1000")));
+        assertEquals(Collections.singletonList("1001"), this.keys(ScanOptions.all()));
+    }
+
+    @Test
+    void deleteCreatedBeforeKeepsNewerObjects() {
+        this.insertObjects(1000, 10, 1000);
+        this.insertObjects(2000, 5, 1_000_000);
+
+        long deleted = this.driver.deleteCreatedBefore(TABLE, 500_000, 3);
+        List<String> keys = this.keys(ScanOptions.all());
+
+        assertEquals(15 - keys.size(), deleted);
+        assertTrue(keys.containsAll(Arrays.asList("2000", "2001", "2002", "2003", "2004")));
+        if (this.deletesAllExpiredObjects()) {
+            assertEquals(10, deleted);
+        } else {
+            assertTrue(deleted > 0);
+        }
+
+        assertEquals(0, this.driver.deleteCreatedBefore(TABLE, 0, 3));
+    }
+
+    @Test
+    void transactionAppliesAllWrites() {
+        this.insertObjects(1000, 3, 0);
+
+        List<String> callbacks = new ArrayList<>();
+        assertTrue(this.driver.transaction(transaction -> {
+            transaction.insert(new TestObject("1005", "inserted"));
+            transaction.update(new TestObject("1000", "updated"));
+            transaction.upsert(new TestObject("1001", "upserted"));
+            transaction.deleteFromTable(TABLE, "1002");
+            transaction.onCommit(() -> callbacks.add("committed"));
+        }));
+
+        assertEquals("inserted", this.driver.get(token("1005")));
+        assertEquals("updated", this.driver.get(token("1000")));
+        assertEquals("upserted", this.driver.get(token("1001")));
+        assertNull(this.driver.get(token("1002")));
+        assertEquals(Collections.singletonList("committed"), callbacks);
+    }
+
+    @Test
+    void failedUnitOfWorkWritesNothing() {
+        assertThrows(IllegalStateException.class, () -> this.driver.transaction(transaction -> {
+            transaction.upsert(new TestObject("1000", "value"));
+            throw new IllegalStateException();
+        }));
+
+        assertNull(this.driver.get(token("1000")));
+    }
+
+    protected void insertObjects(int firstKey, int amount, long creationTime) {
+        for (int i = firstKey; i < firstKey + amount; i++) {
+            this.driver.insert(new TestObject(TABLE, Integer.toString(i), "value" + i, creationTime));
+        }
+    }
+
+    @NotNull
+    protected List<String> keys(@NotNull ScanOptions options) {
+        try (Stream<String> keys = this.driver.keys(TABLE, options)) {
+            return keys.collect(Collectors.toList());
+        }
+    }
+
+    @NotNull
+    protected static DatabaseObjectToken<String> token(@NotNull String key) {
+        return DatabaseObjectToken.newToken(stream -> {
+            try {
+                return stream.readUTF();
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, key, TABLE);
+    }
+
+    /**
+     * An object of the suite, the value is written in the legacy format so no codec is needed
+     */
+    protected static final class TestObject implements TimedDatabaseObject {
+
+        private static final long serialVersionUID = -3010522546046727165L;
+
+        public TestObject(@NotNull String key, @NotNull String value) {
+            this(TABLE, key, value, System.currentTimeMillis());
+        }
+
+        public TestObject(@NotNull String table, @NotNull String key, @NotNull String value, long creationTime) {
+            this.table = table;
+            this.key = key;
+            this.value = value;
+            this.creationTime = creationTime;
+        }
+
+        private final String table;
+
+        private final String key;
+
+        private final String value;
+
+        private final long creationTime;
+
+        @NotNull
+        @Override
+        public String getKey() {
+            return this.key;
+        }
+
+        @NotNull
+        @Override
+        public String getTable() {
+            return this.table;
+        }
+
+        @Override
+        public long getCreationTime() {
+            return this.creationTime;
+        }
+
+        @NotNull
+        @Override
+        public byte[] serialize() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+                stream.writeUTF(this.value);
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * A database configuration which places all files of the drivers in the temporary directory of a test
+     */
+    private static final class TestDatabaseConfig implements DatabaseConfig {
+
+        private TestDatabaseConfig(@NotNull Path directory) {
+            this.directory = directory;
+        }
+
+        private final Path directory;
+
+        @NotNull
+        @Override
+        public String getDriverType() {
+            return "test";
+        }
+
+        @NotNull
+        @Override
+        public String getDatabaseFile() {
+            return this.directory.resolve("database").toAbsolutePath().toString();
+        }
+
+        @NotNull
+        @Override
+        public String formatConnectionString() {
+            return "jdbc:h2:" + this.getDatabaseFile();
+        }
+
+        @Override
+        public int getMaximumPoolSize() {
+            return 4;
+        }
+
+        @Override
+        public long getIdleTimeout() {
+            return 60000;
+        }
+
+        @Override
+        public long getAcquireTimeout() {
+            return 10000;
+        }
+
+        @Override
+        public int getStatementCacheSize() {
+            return 16;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * This file is licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2020 Pasqual Koschmieder.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package systems.reformcloud.database.mvstore;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import systems.reformcloud.database.DatabaseDriver;
+import systems.reformcloud.database.DatabaseDriverConformanceTest;
+import systems.reformcloud.database.object.DatabaseObject;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the mvstore database driver against the behaviour every database driver has to provide
+ *
+ * @author Pasqual Koschmieder
+ * @since 1.0
+ */
+class MVStoreDatabaseDriverTest extends DatabaseDriverConformanceTest {
+
+    @NotNull
+    @Override
+    protected DatabaseDriver createDriver() {
+        return new MVStoreDatabaseDriver();
+    }
+
+    @Test
+    void failedCommitRevertsAppliedOperations() {
+        this.driver.upsert(new TestObject("1000", "before"));
+
+        assertFalse(this.driver.transaction(transaction -> {
+            transaction.upsert(new TestObject("1000", "changed"));
+            transaction.upsert(new TestObject("1001", "added"));
+            transaction.upsert(new FailingObject("1002"));
+        }));
+
+        assertEquals("before", this.driver.get(token("1000")));
+        assertNull(this.driver.get(token("1001")));
+
+        this.reconnect();
+        assertEquals("before", this.driver.get(token("1000")));
+        assertNull(this.driver.get(token("1001")));
+    }
+
+    @Test
+    void writesSurviveReconnect() {
+        this.driver.insert(new TestObject("1000", "single"));
+        assertTrue(this.driver.transaction(transaction -> transaction.upsert(new TestObject("1001", "committed"))));
+
+        this.reconnect();
+        assertEquals("single", this.driver.get(token("1000")));
+        assertEquals("committed", this.driver.get(token("1001")));
+    }
+
+    @Test
+    void creationTimeIndexIsLoadedOnReconnect() {
+        this.insertObjects(1000, 5, 10);
+        this.reconnect();
+        this.insertObjects(2000, 5, 10);
+
+        assertEquals(10, this.driver.deleteCreatedBefore(TABLE, 20, 3));
+        assertNull(this.driver.get(token("1000")));
+        assertNull(this.driver.get(token("2000")));
+    }
+
+    private static final class FailingObject implements DatabaseObject {
+
+        private static final long serialVersionUID = 6147289021733504268L;
+
+        private FailingObject(@NotNull String key) {
+            this.key = key;
+        }
+
+        private final String key;
+
+        @NotNull
+        @Override
+        public String getKey() {
+            return this.key;
+        }
+
+        @NotNull
+        @Override
+        public String getTable() {
+            return TABLE;
+        }
+
+        @NotNull
+        @Override
+        public byte[] serialize() {
+            throw new IllegalStateException("Unable to encode " + this.key);
+        }
+    }
+}